@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "4.0.0-M3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 extra["hibernate.version"] = "6.2.0.Final"
@@ -72,6 +73,10 @@ dependencies {
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+jmh {
+    jmhVersion = "1.37"
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
\ No newline at end of file
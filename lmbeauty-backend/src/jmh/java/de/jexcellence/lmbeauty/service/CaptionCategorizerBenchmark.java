@@ -0,0 +1,113 @@
+package de.jexcellence.lmbeauty.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CaptionCategorizer} with the lowercase/replaceAll/contains chain it replaced,
+ * over the caption corpus in {@code instagram-captions.txt}. Run with {@code ./gradlew jmh}.
+ * <p>
+ * Setup fails if the two implementations disagree on any caption of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaptionCategorizerBenchmark {
+
+    private static final String CORPUS = "instagram-captions.txt";
+
+    private CaptionCategorizer categorizer;
+    private List<String> captions;
+
+    @Setup
+    public void setUp() throws IOException {
+        categorizer = CaptionCategorizer.fromClasspath("instagram-categories.properties");
+        captions = loadCorpus();
+        for (String caption : captions) {
+            String expected = regexChain(caption);
+            String actual = categorizer.categorize(caption);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Categorizers disagree (" + expected + " vs " + actual + "): " + caption);
+            }
+        }
+    }
+
+    @Benchmark
+    public void automaton(Blackhole blackhole) {
+        for (String caption : captions) {
+            blackhole.consume(categorizer.categorize(caption));
+        }
+    }
+
+    @Benchmark
+    public void regexChain(Blackhole blackhole) {
+        for (String caption : captions) {
+            blackhole.consume(regexChain(caption));
+        }
+    }
+
+    /**
+     * The categorization InstagramService used before {@link CaptionCategorizer}.
+     */
+    static String regexChain(String rawCaption) {
+        String caption = rawCaption.toLowerCase();
+        String cleanCaption = caption.replaceAll("#\\w+", "")
+            .replaceAll("[()\\[\\]{}]", " ")
+            .replaceAll("\\s+", " ")
+            .trim();
+
+        if (cleanCaption.contains("volumen") || cleanCaption.contains("whispy")
+                || cleanCaption.contains("wispy") || cleanCaption.contains("anime")) {
+            return "volumentechnik";
+        }
+        if (cleanCaption.contains("hybrid")) {
+            return "hybridtechnik";
+        }
+        if (cleanCaption.contains("1:1") || cleanCaption.contains("einzeltechnik")
+                || cleanCaption.contains("classic wimpern")) {
+            return "einzeltechnik";
+        }
+        if (cleanCaption.contains("augenbrauen") || cleanCaption.contains("brows")
+                || cleanCaption.contains("brauen")) {
+            return "augenbrauen";
+        }
+        if (cleanCaption.contains("wimpernlifting") || cleanCaption.contains("lash lift")
+                || cleanCaption.contains("lashlifting") || cleanCaption.contains("wimpern lifting")
+                || cleanCaption.contains("geliftet")) {
+            return "lifting";
+        }
+        return "general";
+    }
+
+    private static List<String> loadCorpus() throws IOException {
+        try (InputStream in = CaptionCategorizerBenchmark.class.getClassLoader().getResourceAsStream(CORPUS)) {
+            if (in == null) {
+                throw new IllegalStateException("Caption corpus not found: " + CORPUS);
+            }
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines()
+                .filter(line -> !line.isBlank() && !line.startsWith("#"))
+                .map(line -> line.replace("\\n", "\n"))
+                .toList();
+        }
+    }
+}
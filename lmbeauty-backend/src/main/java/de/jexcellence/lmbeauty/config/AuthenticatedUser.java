@@ -0,0 +1,39 @@
+package de.jexcellence.lmbeauty.config;
+
+import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.lmbeauty.type.EUserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of a request authenticated with an access token.
+ * Built from the token's claims, so authenticating a request needs no user lookup.
+ *
+ * @param id    user id
+ * @param email email address, the username towards Spring Security
+ * @param role  role at the time the token was issued
+ */
+public record AuthenticatedUser(Long id, String email, EUserRole role) implements UserDetails {
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(role);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -1,11 +1,15 @@
 package de.jexcellence.lmbeauty.config;
 
+import de.jexcellence.lmbeauty.database.repository.SecondaryIndexRegistry;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.SharedCacheMode;
 import jakarta.persistence.ValidationMode;
 import jakarta.persistence.spi.ClassTransformer;
 import jakarta.persistence.spi.PersistenceUnitInfo;
 import jakarta.persistence.spi.PersistenceUnitTransactionType;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
 import org.hibernate.jpa.HibernatePersistenceProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,13 +48,20 @@ public class HibernateConfig {
             "de.jexcellence.lmbeauty.database.entity.WeeklyAvailability",
             "de.jexcellence.lmbeauty.database.entity.SpecificDateAvailability",
             "de.jexcellence.lmbeauty.database.entity.LoyaltyStamp",
+            "de.jexcellence.lmbeauty.database.entity.LoyaltyBalance",
+            "de.jexcellence.lmbeauty.database.entity.InstagramMedia",
             "de.jexcellence.lmbeauty.database.entity.BlockedPeriod",
             "de.jexcellence.lmbeauty.database.entity.Appointment"
     );
 
+    @Bean
+    public SecondaryIndexRegistry secondaryIndexRegistry() {
+        return new SecondaryIndexRegistry();
+    }
+
     @Bean
     @Primary
-    public EntityManagerFactory entityManagerFactory() {
+    public EntityManagerFactory entityManagerFactory(SecondaryIndexRegistry secondaryIndexRegistry) {
         // Load hibernate properties
         Properties hibernateProperties = loadHibernateProperties();
 
@@ -152,8 +163,18 @@ public class HibernateConfig {
             }
         };
 
-        return new HibernatePersistenceProvider()
+        EntityManagerFactory entityManagerFactory = new HibernatePersistenceProvider()
                 .createContainerEntityManagerFactory(persistenceUnitInfo, hibernateProperties);
+
+        // Keep in-memory secondary indexes in sync with committed entity changes
+        EventListenerRegistry listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, secondaryIndexRegistry);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, secondaryIndexRegistry);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, secondaryIndexRegistry);
+
+        return entityManagerFactory;
     }
 
     @Bean
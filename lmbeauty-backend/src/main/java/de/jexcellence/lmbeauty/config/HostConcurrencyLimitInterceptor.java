@@ -0,0 +1,56 @@
+package de.jexcellence.lmbeauty.config;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of concurrent requests per target host, so one slow provider cannot take up
+ * every thread that makes outbound calls. A request that gets no permit within the acquire timeout
+ * fails with an {@link IOException}.
+ * <p>
+ * The permit is held until the response headers arrived; reading the body is not covered.
+ */
+public class HostConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final int maxConcurrentRequests;
+    private final long acquireTimeoutMillis;
+    private final ConcurrentHashMap<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimitInterceptor(int maxConcurrentRequests, Duration acquireTimeout) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("At least one concurrent request per host is required");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        Semaphore permits = permitsByHost.computeIfAbsent(String.valueOf(host), h -> new Semaphore(maxConcurrentRequests));
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request permit for " + host);
+        }
+
+        try {
+            return execution.execute(request, body);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package de.jexcellence.lmbeauty.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Shared HTTP client for all outbound provider calls.
+ * <p>
+ * A single JDK {@link HttpClient} keeps its connections alive and reuses them across services,
+ * multiplexing over HTTP/2 where the provider supports it. Requests are bounded by connect and
+ * read timeouts and a per-host concurrency limit, and recorded as {@code http.client.requests}
+ * observations when an observation registry is available.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public HttpClient httpClient(HttpClientProperties properties, ExecutorService executorService) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(properties.getConnectTimeoutSeconds()))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(executorService)
+            .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(
+        HttpClient httpClient,
+        HttpClientProperties properties,
+        ObjectProvider<ObservationRegistry> observationRegistry
+    ) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(properties.getReadTimeoutSeconds()));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(new HostConcurrencyLimitInterceptor(
+            properties.getMaxConcurrentRequestsPerHost(),
+            Duration.ofSeconds(properties.getAcquireTimeoutSeconds())));
+        observationRegistry.ifAvailable(restTemplate::setObservationRegistry);
+        return restTemplate;
+    }
+}
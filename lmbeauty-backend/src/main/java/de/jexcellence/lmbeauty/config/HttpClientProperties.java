@@ -0,0 +1,19 @@
+package de.jexcellence.lmbeauty.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the shared HTTP client used for all outbound provider calls (OAuth, Instagram Graph API).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "http.client")
+@Data
+public class HttpClientProperties {
+
+    private int connectTimeoutSeconds = 5;
+    private int readTimeoutSeconds = 15;
+    private int maxConcurrentRequestsPerHost = 16;
+    private int acquireTimeoutSeconds = 10;
+}
@@ -1,6 +1,8 @@
 package de.jexcellence.lmbeauty.config;
 
+import de.jexcellence.lmbeauty.database.entity.User;
 import de.jexcellence.lmbeauty.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -40,16 +42,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Verified once; the claims are reused for the validity check below
+            Claims claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && jwtService.isTokenCurrent(claims)) {
+                AuthenticatedUser principal = jwtService.toPrincipal(claims);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (principal == null) {
+                    // Tokens issued before the user claims were added still need the lookup
+                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                    if (userDetails instanceof User user && jwtService.isTokenValid(claims, userDetails)) {
+                        principal = AuthenticatedUser.of(user);
+                    }
+                }
+
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -10,12 +10,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -24,8 +29,11 @@ import java.util.List;
 @Slf4j
 public class AdminController {
 
+    private static final long EXPORT_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
     private final AdminService adminService;
     private final AvailabilityService availabilityService;
+    private final ExecutorService executorService;
 
     @GetMapping("/dashboard")
     public ResponseEntity<ApiResponse<DashboardMetricsResponse>> getDashboard() {
@@ -66,6 +74,53 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/appointments/page")
+    public ResponseEntity<ApiResponse<AppointmentPageResponse>> getAppointmentPage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) EAppointmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            AppointmentPageResponse page = adminService.getAppointmentPage(from, to, status, cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to fetch appointment page for date range {} to {}", from, to, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Fehler beim Laden der Termine"));
+        }
+    }
+
+    /**
+     * Exports the appointments of a date range as newline-delimited JSON, written row by row from a database cursor.
+     */
+    @GetMapping(value = "/appointments/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter exportAppointments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) EAppointmentStatus status) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(EXPORT_TIMEOUT_MILLIS);
+        executorService.execute(() -> {
+            try {
+                adminService.streamAppointmentsByDateRange(from, to, status, appointment -> {
+                    try {
+                        emitter.send(appointment, MediaType.APPLICATION_JSON);
+                        emitter.send("\n", MediaType.TEXT_PLAIN);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                emitter.complete();
+            } catch (Exception e) {
+                log.error("Failed to export appointments for date range {} to {}", from, to, e);
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
     @GetMapping("/customers")
     public ResponseEntity<ApiResponse<List<CustomerSummary>>> getCustomers(
             @RequestParam(required = false) String search) {
@@ -1,6 +1,6 @@
 package de.jexcellence.lmbeauty.controller;
 
-import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.lmbeauty.config.AuthenticatedUser;
 import de.jexcellence.lmbeauty.dto.ApiResponse;
 import de.jexcellence.lmbeauty.dto.booking.AppointmentActionRequest;
 import de.jexcellence.lmbeauty.dto.booking.AppointmentResponse;
@@ -29,43 +29,36 @@ public class AppointmentController {
 
     @PostMapping
     public ResponseEntity<ApiResponse<AppointmentResponse>> bookAppointment(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody BookAppointmentRequest request) {
-        AppointmentResponse appointment = appointmentService.bookAppointment(user.getId(), request);
+        AppointmentResponse appointment = appointmentService.bookAppointment(user.id(), request);
         return ResponseEntity.ok(ApiResponse.success(appointment));
     }
 
     @GetMapping("/my")
     public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getMyAppointments(
-            @AuthenticationPrincipal User user) {
-        List<AppointmentResponse> appointments = appointmentService.getCustomerAppointments(user.getId());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        List<AppointmentResponse> appointments = appointmentService.getCustomerAppointments(user.id());
         return ResponseEntity.ok(ApiResponse.success(appointments));
     }
 
     @GetMapping("/my/history")
     public ResponseEntity<ApiResponse<TreatmentHistoryResponse>> getMyHistory(
-            @AuthenticationPrincipal User user) {
-        TreatmentHistoryResponse history = appointmentService.getCustomerHistory(user.getId());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        TreatmentHistoryResponse history = appointmentService.getCustomerHistory(user.id());
         return ResponseEntity.ok(ApiResponse.success(history));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> cancelAppointment(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        appointmentService.cancelAppointment(id, user.getId());
+        appointmentService.cancelAppointment(id, user.id());
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
     // Owner endpoints
 
-    @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getAllAppointments() {
-        List<AppointmentResponse> appointments = appointmentService.getAllAppointments();
-        return ResponseEntity.ok(ApiResponse.success(appointments));
-    }
-
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<AppointmentResponse>>> getPendingAppointments() {
@@ -8,8 +8,10 @@ import de.jexcellence.lmbeauty.dto.booking.BlockedPeriodRequest;
 import de.jexcellence.lmbeauty.dto.booking.SpecificDateAvailabilityRequest;
 import de.jexcellence.lmbeauty.dto.booking.WeeklyAvailabilityRequest;
 import de.jexcellence.lmbeauty.service.AvailabilityService;
+import de.jexcellence.lmbeauty.service.DayCalendarResolver;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -87,6 +89,15 @@ public class AvailabilityController {
         return ResponseEntity.ok(ApiResponse.success(null));
     }
 
+    // Resolved Calendar Endpoints
+    @GetMapping("/calendar")
+    public ResponseEntity<ApiResponse<List<DayCalendarResolver.DayCalendar>>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DayCalendarResolver.DayCalendar> calendars = availabilityService.getDayCalendars(from, to);
+        return ResponseEntity.ok(ApiResponse.success(calendars));
+    }
+
     // Specific Date Availability Endpoints
     @GetMapping("/date/{date}")
     public ResponseEntity<ApiResponse<List<SpecificDateAvailability>>> getSpecificDateAvailability(
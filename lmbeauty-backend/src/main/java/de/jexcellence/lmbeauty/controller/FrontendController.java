@@ -1,22 +1,24 @@
 package de.jexcellence.lmbeauty.controller;
 
-import de.jexcellence.lmbeauty.database.entity.Treatment;
-import de.jexcellence.lmbeauty.database.entity.TreatmentRefill;
-import de.jexcellence.lmbeauty.database.repository.TreatmentRefillRepository;
-import de.jexcellence.lmbeauty.database.repository.TreatmentRepository;
 import de.jexcellence.lmbeauty.dto.ApiResponse;
 import de.jexcellence.lmbeauty.dto.frontend.ServiceDto;
 import de.jexcellence.lmbeauty.service.InstagramService;
+import de.jexcellence.lmbeauty.service.SerializedResponseCache;
+import de.jexcellence.lmbeauty.service.TreatmentCatalog;
 import de.jexcellence.lmbeauty.type.ETreatmentCategory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Controller for frontend-specific API endpoints.
@@ -28,42 +30,41 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FrontendController {
 
-    private final TreatmentRepository treatmentRepository;
-    private final TreatmentRefillRepository treatmentRefillRepository;
+    /**
+     * Public payloads may be cached briefly by browsers and longer by a CDN, which revalidates with the ETag.
+     */
+    private static final CacheControl PUBLIC_CACHE = CacheControl.maxAge(Duration.ofMinutes(1))
+            .sMaxAge(Duration.ofMinutes(10))
+            .cachePublic();
+
+    private final TreatmentCatalog treatmentCatalog;
     private final InstagramService instagramService;
+    private final SerializedResponseCache serializedResponseCache;
 
     /**
      * Get services data for the ServicesSection component.
      * Returns data in the exact format expected by the frontend.
      */
     @GetMapping("/services")
-    @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<List<ServiceDto>>> getServices() {
-        log.info("Getting services for frontend");
+    public ResponseEntity<byte[]> getServices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Getting services for frontend");
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String currentETag = representationETag(catalogETag(treatmentCatalog.version()), gzip);
+        if (matches(ifNoneMatch, currentETag)) {
+            return serializedNotModified(currentETag);
+        }
 
         try {
-            List<Treatment> treatments = treatmentRepository.findByCategoryAndActiveTrue(ETreatmentCategory.WIMPERN);
-            log.info("Found {} treatments in WIMPERN category", treatments.size());
-
-            treatments.forEach(this::loadRefillOptions);
-
-            List<ServiceDto> services = treatments.stream()
-                    .map(ServiceDto::fromTreatment)
-                    .collect(Collectors.toList());
-
-            log.info("Converted to {} service DTOs", services.size());
-            services.forEach(service -> {
-                log.info("Service: {} - Refill prices: {}", service.getTitle(),
-                        service.getDetails() != null && service.getDetails().getRefillPrices() != null ?
-                                service.getDetails().getRefillPrices().size() : 0);
-            });
-
-            return ResponseEntity.ok(ApiResponse.success(services));
+            TreatmentCatalog.Snapshot catalog = treatmentCatalog.snapshot();
+            return serialized("services", catalogETag(catalog.version()), gzip,
+                    () -> ApiResponse.success(catalog.servicesByCategory(ETreatmentCategory.WIMPERN)));
 
         } catch (Exception e) {
             log.error("Error getting services for frontend", e);
-            return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Error retrieving services"));
+            return serializedError("Error retrieving services");
         }
     }
 
@@ -72,35 +73,33 @@ public class FrontendController {
      * Returns services with Instagram images when available, fallback to static images.
      */
     @GetMapping("/services/enhanced")
-    @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<List<ServiceDto>>> getEnhancedServices() {
-        log.info("Getting enhanced services with Instagram images for frontend");
+    public ResponseEntity<byte[]> getEnhancedServices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Getting enhanced services with Instagram images for frontend");
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String currentETag = representationETag(
+                enhancedETag(treatmentCatalog.version(), instagramService.getCacheGeneration()), gzip);
+        if (matches(ifNoneMatch, currentETag)) {
+            return serializedNotModified(currentETag);
+        }
 
         try {
-            List<Treatment> treatments = treatmentRepository.findByCategoryAndActiveTrue(ETreatmentCategory.WIMPERN);
-            log.info("Found {} treatments in WIMPERN category", treatments.size());
-
-            treatments.forEach(this::loadRefillOptions);
-
-            List<ServiceDto> services = treatments.stream()
-                    .map(treatment -> ServiceDto.fromTreatment(treatment, instagramService))
-                    .collect(Collectors.toList());
-
-            log.info("Converted to {} enhanced service DTOs", services.size());
-            services.forEach(service -> {
-                log.info("Service: {} - Instagram image: {} - Refill prices: {}",
-                        service.getTitle(),
-                        service.getInstagramImageUrl() != null ? "Yes" : "No",
-                        service.getDetails() != null && service.getDetails().getRefillPrices() != null ?
-                                service.getDetails().getRefillPrices().size() : 0);
-            });
-
-            return ResponseEntity.ok(ApiResponse.success(services));
+            TreatmentCatalog.Snapshot catalog = treatmentCatalog.snapshot();
+            long instagramGeneration = instagramService.getCacheGeneration();
+            return serialized("services-enhanced", enhancedETag(catalog.version(), instagramGeneration), gzip,
+                    () -> ApiResponse.success(catalog.activeTreatmentEntities().stream()
+                            .filter(treatment -> treatment.getCategory() == ETreatmentCategory.WIMPERN)
+                            .map(treatment -> ServiceDto.fromTreatment(
+                                    treatment,
+                                    catalog.refillOptions(treatment.getId()),
+                                    instagramService.getImageForTreatment(treatment.getSlug()).orElse(null)))
+                            .toList()));
 
         } catch (Exception e) {
             log.error("Error getting enhanced services for frontend", e);
-            return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Error retrieving enhanced services"));
+            return serializedError("Error retrieving enhanced services");
         }
     }
 
@@ -108,26 +107,25 @@ public class FrontendController {
      * Get all active services including extras.
      */
     @GetMapping("/services/all")
-    @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<List<ServiceDto>>> getAllServices() {
+    public ResponseEntity<byte[]> getAllServices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.debug("Getting all services for frontend");
 
-        try {
-            List<Treatment> treatments = treatmentRepository.findByActiveTrue();
-
-            treatments.forEach(this::loadRefillOptions);
-
-            List<ServiceDto> services = treatments.stream()
-                    .map(ServiceDto::fromTreatment)
-                    .collect(Collectors.toList());
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String currentETag = representationETag(catalogETag(treatmentCatalog.version()), gzip);
+        if (matches(ifNoneMatch, currentETag)) {
+            return serializedNotModified(currentETag);
+        }
 
-            log.debug("Found {} total services for frontend", services.size());
-            return ResponseEntity.ok(ApiResponse.success(services));
+        try {
+            TreatmentCatalog.Snapshot catalog = treatmentCatalog.snapshot();
+            return serialized("services-all", catalogETag(catalog.version()), gzip,
+                    () -> ApiResponse.success(catalog.services()));
 
         } catch (Exception e) {
             log.error("Error getting all services for frontend", e);
-            return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Error retrieving all services"));
+            return serializedError("Error retrieving all services");
         }
     }
 
@@ -135,28 +133,27 @@ public class FrontendController {
      * Get services by category for frontend.
      */
     @GetMapping("/services/category/{category}")
-    @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<List<ServiceDto>>> getServicesByCategory(
-            @PathVariable ETreatmentCategory category) {
+    public ResponseEntity<byte[]> getServicesByCategory(
+            @PathVariable ETreatmentCategory category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         log.debug("Getting services for category {} for frontend", category);
 
-        try {
-            List<Treatment> treatments = treatmentRepository.findByCategoryAndActiveTrue(category);
-
-            treatments.forEach(this::loadRefillOptions);
-
-            List<ServiceDto> services = treatments.stream()
-                    .map(ServiceDto::fromTreatment)
-                    .collect(Collectors.toList());
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String currentETag = representationETag(catalogETag(treatmentCatalog.version()), gzip);
+        if (matches(ifNoneMatch, currentETag)) {
+            return serializedNotModified(currentETag);
+        }
 
-            log.debug("Found {} services for category {} for frontend", services.size(), category);
-            return ResponseEntity.ok(ApiResponse.success(services));
+        try {
+            TreatmentCatalog.Snapshot catalog = treatmentCatalog.snapshot();
+            return serialized("services-category-" + category.name(), catalogETag(catalog.version()), gzip,
+                    () -> ApiResponse.success(catalog.servicesByCategory(category)));
 
         } catch (Exception e) {
             log.error("Error getting services for category {} for frontend", category, e);
-            return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Error retrieving services for category"));
+            return serializedError("Error retrieving services for category");
         }
     }
 
@@ -164,19 +161,27 @@ public class FrontendController {
      * Get a specific service by slug for frontend.
      */
     @GetMapping("/services/{slug}")
-    @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<ServiceDto>> getService(@PathVariable String slug) {
+    public ResponseEntity<byte[]> getService(
+            @PathVariable String slug,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.debug("Getting service {} for frontend", slug);
 
+        boolean gzip = acceptsGzip(acceptEncoding);
         try {
-            Treatment treatment = treatmentRepository.findBySlug(slug)
+            // The slug is checked before revalidation, so unknown slugs never get a 304
+            TreatmentCatalog.Snapshot catalog = treatmentCatalog.snapshot();
+            ServiceDto service = catalog.serviceBySlug(slug)
                     .orElseThrow(() -> new IllegalArgumentException("Service not found: " + slug));
 
-            loadRefillOptions(treatment);
-
-            ServiceDto service = ServiceDto.fromTreatment(treatment);
+            String currentETag = representationETag(catalogETag(catalog.version()), gzip);
+            if (matches(ifNoneMatch, currentETag)) {
+                return serializedNotModified(currentETag);
+            }
 
-            return ResponseEntity.ok(ApiResponse.success(service));
+            // Only known slugs get an entry, so the cache stays bounded by the catalog size
+            return serialized("service-" + slug, catalogETag(catalog.version()), gzip,
+                    () -> ApiResponse.success(service));
 
         } catch (IllegalArgumentException e) {
             log.warn("Service not found: {}", e.getMessage());
@@ -184,24 +189,7 @@ public class FrontendController {
 
         } catch (Exception e) {
             log.error("Error getting service {} for frontend", slug, e);
-            return ResponseEntity.internalServerError()
-                    .body(ApiResponse.error("Error retrieving service"));
-        }
-    }
-
-    /**
-     * Helper method to load refill options for a treatment.
-     */
-    private void loadRefillOptions(Treatment treatment) {
-        if (treatment.isHasRefillOptions()) {
-            List<TreatmentRefill> refillOptions = treatmentRefillRepository.findByTreatmentIdAndActiveTrue(treatment.getId());
-            treatment.setRefillOptions(refillOptions);
-            log.info("Loaded {} refill options for treatment: {} (ID: {})", refillOptions.size(), treatment.getName(), treatment.getId());
-            refillOptions.forEach(refill ->
-                    log.info("  - Refill: {} weeks, {}€, {}", refill.getWeekThreshold(), refill.getPrice(), refill.getDescription())
-            );
-        } else {
-            log.info("Treatment {} (ID: {}) has no refill options", treatment.getName(), treatment.getId());
+            return serializedError("Error retrieving service");
         }
     }
 
@@ -227,11 +215,18 @@ public class FrontendController {
      * Get Instagram posts categorized by treatment type.
      */
     @GetMapping("/instagram/posts")
-    public ResponseEntity<ApiResponse<Map<String, List<InstagramService.InstagramPost>>>> getInstagramPosts() {
+    public ResponseEntity<ApiResponse<Map<String, List<InstagramService.InstagramPost>>>> getInstagramPosts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("=== Getting categorized Instagram posts ===");
 
+        String currentETag = representationETag(instagramETag(instagramService.getCacheGeneration()), false);
+        if (matches(ifNoneMatch, currentETag)) {
+            return notModified(currentETag);
+        }
+
         try {
             Map<String, List<InstagramService.InstagramPost>> posts = instagramService.getCategorizedPosts();
+            long generation = instagramService.getCacheGeneration();
 
             log.info("Instagram posts retrieved:");
             posts.forEach((category, postList) -> {
@@ -245,7 +240,7 @@ public class FrontendController {
                 log.warn("No Instagram posts available - check if token is valid and posts exist");
             }
 
-            return ResponseEntity.ok(ApiResponse.success(posts));
+            return cacheable(representationETag(instagramETag(generation), false), ApiResponse.success(posts));
 
         } catch (Exception e) {
             log.error("Error getting Instagram posts", e);
@@ -412,4 +407,101 @@ public class FrontendController {
                     .body(ApiResponse.error("Error retrieving reviews"));
         }
     }
-}
\ No newline at end of file
+
+    private static String catalogETag(long catalogVersion) {
+        return "catalog-" + catalogVersion;
+    }
+
+    private static String enhancedETag(long catalogVersion, long instagramGeneration) {
+        return "catalog-" + catalogVersion + "-instagram-" + instagramGeneration;
+    }
+
+    private static String instagramETag(long instagramGeneration) {
+        return "instagram-" + instagramGeneration;
+    }
+
+    /**
+     * Quoted strong ETag of one content encoding of a payload version.
+     */
+    private static String representationETag(String version, boolean gzip) {
+        return "\"" + version + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * Whether the client accepts a gzip-encoded body.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether an If-None-Match header matches the given strong ETag.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison, so a CDN may hand back a weakened tag
+            if (tag.equals("*") || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(PUBLIC_CACHE)
+                .build();
+    }
+
+    /**
+     * 304 for an endpoint answered by {@link #serialized}, carrying the same caching headers as its 200.
+     */
+    private static ResponseEntity<byte[]> serializedNotModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(PUBLIC_CACHE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    private static <T> ResponseEntity<T> cacheable(String eTag, T body) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(PUBLIC_CACHE)
+                .body(body);
+    }
+
+    private ResponseEntity<byte[]> serialized(String key, String version, boolean gzip, Supplier<?> body) {
+        SerializedResponseCache.SerializedBody serializedBody = serializedResponseCache.get(key, version, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(representationETag(version, gzip))
+                .cacheControl(PUBLIC_CACHE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serializedBody.gzip());
+        }
+        return response.body(serializedBody.json());
+    }
+
+    private ResponseEntity<byte[]> serializedError(String message) {
+        return ResponseEntity.internalServerError()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serializedResponseCache.toJson(ApiResponse.error(message)));
+    }
+}
@@ -1,6 +1,6 @@
 package de.jexcellence.lmbeauty.controller;
 
-import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.lmbeauty.config.AuthenticatedUser;
 import de.jexcellence.lmbeauty.dto.ApiResponse;
 import de.jexcellence.lmbeauty.dto.booking.LoyaltyStampResponse;
 import de.jexcellence.lmbeauty.dto.booking.LoyaltyStatusResponse;
@@ -22,22 +22,22 @@ public class LoyaltyController {
 
     @GetMapping("/status")
     public ResponseEntity<ApiResponse<LoyaltyStatusResponse>> getMyLoyaltyStatus(
-            @AuthenticationPrincipal User user) {
-        LoyaltyStatusResponse status = loyaltyService.getLoyaltyStatus(user.getId());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        LoyaltyStatusResponse status = loyaltyService.getLoyaltyStatus(user.id());
         return ResponseEntity.ok(ApiResponse.success(status));
     }
 
     @GetMapping("/history")
     public ResponseEntity<ApiResponse<List<LoyaltyStampResponse>>> getMyLoyaltyHistory(
-            @AuthenticationPrincipal User user) {
-        List<LoyaltyStampResponse> history = loyaltyService.getLoyaltyHistory(user.getId());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        List<LoyaltyStampResponse> history = loyaltyService.getLoyaltyHistory(user.id());
         return ResponseEntity.ok(ApiResponse.success(history));
     }
 
     @PostMapping("/redeem")
     public ResponseEntity<ApiResponse<LoyaltyStatusResponse>> redeemReward(
-            @AuthenticationPrincipal User user) {
-        LoyaltyStatusResponse status = loyaltyService.redeemReward(user.getId());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        LoyaltyStatusResponse status = loyaltyService.redeemReward(user.id());
         return ResponseEntity.ok(ApiResponse.success(status));
     }
 
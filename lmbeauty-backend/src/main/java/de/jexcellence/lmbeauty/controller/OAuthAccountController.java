@@ -1,9 +1,11 @@
 package de.jexcellence.lmbeauty.controller;
 
+import de.jexcellence.lmbeauty.config.AuthenticatedUser;
 import de.jexcellence.lmbeauty.database.entity.OAuthAccount;
 import de.jexcellence.lmbeauty.database.entity.OAuthProvider;
 import de.jexcellence.lmbeauty.database.entity.User;
 import de.jexcellence.lmbeauty.database.repository.OAuthAccountRepository;
+import de.jexcellence.lmbeauty.database.repository.UserRepository;
 import de.jexcellence.lmbeauty.dto.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,20 +25,21 @@ import java.util.List;
 public class OAuthAccountController {
 
     private final OAuthAccountRepository oAuthAccountRepository;
+    private final UserRepository userRepository;
 
     /**
      * Get all linked OAuth accounts for the current user
      */
     @GetMapping
     public ResponseEntity<ApiResponse<List<LinkedAccountDto>>> getLinkedAccounts(
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal AuthenticatedUser user
     ) {
         if (user == null) {
             return ResponseEntity.status(401)
                     .body(ApiResponse.error("Not authenticated"));
         }
 
-        List<OAuthAccount> accounts = oAuthAccountRepository.findByUserId(user.getId());
+        List<OAuthAccount> accounts = oAuthAccountRepository.findByUserId(user.id());
         List<LinkedAccountDto> linkedAccounts = accounts.stream()
                 .map(this::mapToDto)
                 .toList();
@@ -49,9 +52,11 @@ public class OAuthAccountController {
      */
     @DeleteMapping("/{provider}")
     public ResponseEntity<ApiResponse<String>> unlinkAccount(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable String provider
     ) {
+        // The password flag is not part of the token, so this endpoint loads the user
+        User user = principal != null ? userRepository.findById(principal.id()) : null;
         if (user == null) {
             return ResponseEntity.status(401)
                     .body(ApiResponse.error("Not authenticated"));
@@ -100,8 +105,9 @@ public class OAuthAccountController {
      */
     @GetMapping("/status")
     public ResponseEntity<ApiResponse<AccountStatusDto>> getAccountStatus(
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
+        User user = principal != null ? userRepository.findById(principal.id()) : null;
         if (user == null) {
             return ResponseEntity.status(401)
                     .body(ApiResponse.error("Not authenticated"));
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -65,6 +66,38 @@ public class RefillController {
         }
     }
 
+    /**
+     * Calculates refill eligibility for several treatments in one request, either the given
+     * treatment ids or all active treatments of a category. Results are keyed by treatment id.
+     */
+    @GetMapping("/calculate/batch")
+    public ResponseEntity<Map<Long, RefillEligibilityResponse>> calculateRefillEligibilityBatch(
+            @RequestParam Long customerId,
+            @RequestParam(required = false) List<Long> treatmentIds,
+            @RequestParam(required = false) String category) {
+        
+        log.debug("Calculating batch refill eligibility for customer {}: treatments {}, category {}",
+                 customerId, treatmentIds, category);
+        
+        try {
+            Map<Long, RefillEligibilityResponse> eligibilities;
+            if (treatmentIds != null && !treatmentIds.isEmpty()) {
+                eligibilities = refillCalculationService.calculateRefillEligibilityBatch(customerId, treatmentIds);
+            } else if (category != null && !category.isBlank()) {
+                eligibilities = refillCalculationService.calculateRefillEligibilityBatchForCategory(customerId, category);
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(eligibilities);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for batch refill eligibility: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error calculating batch refill eligibility", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/best-option")
     public ResponseEntity<RefillOptionDto> getBestRefillOption(
             @RequestParam Long customerId,
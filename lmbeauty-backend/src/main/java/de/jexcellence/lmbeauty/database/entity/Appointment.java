@@ -13,7 +13,14 @@ import java.time.LocalDateTime;
  * Appointment entity representing a scheduled booking for a treatment.
  */
 @Entity
-@Table(name = "appointments")
+@Table(
+    name = "appointments",
+    indexes = {
+        @Index(name = "idx_appointment_scheduled_status", columnList = "scheduled_at, status"),
+        @Index(name = "idx_appointment_scheduled_id", columnList = "scheduled_at, id"),
+        @Index(name = "idx_appointment_customer_scheduled", columnList = "customer_id, scheduled_at")
+    }
+)
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Appointment extends AbstractEntity {
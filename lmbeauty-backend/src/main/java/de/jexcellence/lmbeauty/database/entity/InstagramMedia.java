@@ -0,0 +1,61 @@
+package de.jexcellence.lmbeauty.database.entity;
+
+import de.jexcellence.hibernate.entity.AbstractEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InstagramMedia entity holding one synced Instagram post with its computed category.
+ * Lets a refresh fetch only posts newer than the newest stored one.
+ */
+@Entity
+@Table(name = "instagram_media", indexes = {
+    @Index(name = "idx_instagram_media_posted_at", columnList = "posted_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class InstagramMedia extends AbstractEntity {
+
+    @Column(name = "media_id", nullable = false, unique = true, length = 64)
+    @NotNull(message = "Media ID is required")
+    private String mediaId;
+
+    @Column(name = "caption", columnDefinition = "TEXT")
+    private String caption;
+
+    @Column(name = "media_type", nullable = false, length = 20)
+    private String mediaType;
+
+    @Column(name = "media_url", columnDefinition = "TEXT")
+    private String mediaUrl;
+
+    @Column(name = "permalink", length = 500)
+    private String permalink;
+
+    /**
+     * Publication time as returned by the Graph API, e.g. {@code 2025-12-28T10:00:00+0000}.
+     */
+    @Column(name = "posted_at", nullable = false, length = 30)
+    private String postedAt;
+
+    @Column(name = "category", nullable = false, length = 30)
+    private String category;
+
+    /**
+     * When {@link #mediaUrl} was last fetched; Instagram CDN URLs expire after a few days.
+     */
+    @Column(name = "media_url_fetched_at", nullable = false)
+    private LocalDateTime mediaUrlFetchedAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "instagram_media_child", joinColumns = @JoinColumn(name = "instagram_media_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "media_url", columnDefinition = "TEXT")
+    private List<String> carouselImages = new ArrayList<>();
+}
@@ -0,0 +1,33 @@
+package de.jexcellence.lmbeauty.database.entity;
+
+import de.jexcellence.hibernate.entity.AbstractEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * LoyaltyBalance entity holding the denormalized loyalty counters of one customer.
+ * Updated in the same transaction as every stamp creation and redemption, so loyalty status
+ * reads never have to aggregate {@link LoyaltyStamp} rows.
+ */
+@Entity
+@Table(name = "loyalty_balance")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class LoyaltyBalance extends AbstractEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    @NotNull(message = "User is required")
+    private User user;
+
+    @Column(name = "current_stamps", nullable = false)
+    private int currentStamps = 0;
+
+    @Column(name = "total_stamps", nullable = false)
+    private int totalStamps = 0;
+
+    @Column(name = "current_cycle", nullable = false)
+    private int currentCycle = 1;
+}
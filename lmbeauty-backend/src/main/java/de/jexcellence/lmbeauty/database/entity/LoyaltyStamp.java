@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
  * After 10 stamps, they receive a 15% discount on their next booking.
  */
 @Entity
-@Table(name = "loyalty_stamps")
+@Table(
+    name = "loyalty_stamps",
+    indexes = @Index(name = "idx_loyalty_stamp_user_redeemed", columnList = "user_id, redeemed"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_loyalty_stamp_appointment", columnNames = "appointment_id")
+)
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class LoyaltyStamp extends AbstractEntity {
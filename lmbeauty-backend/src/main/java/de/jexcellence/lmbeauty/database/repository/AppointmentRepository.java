@@ -4,17 +4,38 @@ import de.jexcellence.lmbeauty.database.entity.Appointment;
 import de.jexcellence.lmbeauty.type.EAppointmentStatus;
 import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class AppointmentRepository extends GenericCachedRepository<Appointment, Long, Long> {
 
+    /**
+     * Customer and treatment are fetched eagerly because every caller maps the result
+     * into an AppointmentResponse after the query's EntityManager has been closed.
+     */
+    private static final String SELECT_WITH_ASSOCIATIONS =
+        "SELECT a FROM Appointment a JOIN FETCH a.customer JOIN FETCH a.treatment ";
+
+    /**
+     * Name of the exclusion constraint that keeps PENDING/CONFIRMED appointments from overlapping.
+     */
+    public static final String NO_OVERLAP_CONSTRAINT = "ex_appointments_no_overlap";
+
+    /**
+     * Rows fetched per JDBC round trip while streaming; the persistence context is cleared after each batch.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
     public AppointmentRepository(
         final ExecutorService executor,
         final EntityManagerFactory entityManagerFactory
@@ -23,32 +44,203 @@ public class AppointmentRepository extends GenericCachedRepository<Appointment,
     }
 
     public List<Appointment> findByCustomerIdOrderByScheduledAtDesc(Long customerId) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(a -> a.getCustomer().getId().equals(customerId))
-            .sorted(Comparator.comparing(Appointment::getScheduledAt).reversed())
-            .toList();
+        return executeQuery(entityManager -> entityManager.createQuery(
+                SELECT_WITH_ASSOCIATIONS +
+                "WHERE a.customer.id = :customerId ORDER BY a.scheduledAt DESC",
+                Appointment.class)
+            .setParameter("customerId", customerId)
+            .getResultList());
     }
 
     public List<Appointment> findByStatusOrderByScheduledAtAsc(EAppointmentStatus status) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(a -> a.getStatus() == status)
-            .sorted(Comparator.comparing(Appointment::getScheduledAt))
-            .toList();
+        return executeQuery(entityManager -> entityManager.createQuery(
+                SELECT_WITH_ASSOCIATIONS +
+                "WHERE a.status = :status ORDER BY a.scheduledAt ASC",
+                Appointment.class)
+            .setParameter("status", status)
+            .getResultList());
     }
 
+    /**
+     * Find appointments starting in the half-open range [start, end) with one of the given statuses.
+     */
     public List<Appointment> findByScheduledAtBetweenAndStatusIn(
             LocalDateTime start, LocalDateTime end, Set<EAppointmentStatus> statuses) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(a -> !a.getScheduledAt().isBefore(start) && a.getScheduledAt().isBefore(end))
-            .filter(a -> statuses.contains(a.getStatus()))
-            .toList();
+        return executeQuery(entityManager -> entityManager.createQuery(
+                SELECT_WITH_ASSOCIATIONS +
+                "WHERE a.scheduledAt >= :start AND a.scheduledAt < :end AND a.status IN :statuses " +
+                "ORDER BY a.scheduledAt ASC",
+                Appointment.class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .setParameter("statuses", statuses)
+            .getResultList());
     }
 
     public List<Appointment> findByCustomerIdAndStatusIn(Long customerId, Set<EAppointmentStatus> statuses) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(a -> a.getCustomer().getId().equals(customerId))
-            .filter(a -> statuses.contains(a.getStatus()))
-            .sorted(Comparator.comparing(Appointment::getScheduledAt).reversed())
-            .toList();
+        return executeQuery(entityManager -> entityManager.createQuery(
+                SELECT_WITH_ASSOCIATIONS +
+                "WHERE a.customer.id = :customerId AND a.status IN :statuses ORDER BY a.scheduledAt DESC",
+                Appointment.class)
+            .setParameter("customerId", customerId)
+            .setParameter("statuses", statuses)
+            .getResultList());
+    }
+
+    /**
+     * Find one page of appointments starting in [from, to), ordered by (scheduledAt, id).
+     * Keyset pagination: pass the last row of the previous page as {@code afterScheduledAt}/{@code afterId},
+     * or {@code null} for the first page.
+     */
+    public List<Appointment> findPageByScheduledAtRange(LocalDateTime from, LocalDateTime to, EAppointmentStatus status,
+                                                        LocalDateTime afterScheduledAt, Long afterId, int limit) {
+        boolean hasCursor = afterScheduledAt != null && afterId != null;
+        return executeQuery(entityManager -> {
+            var query = entityManager.createQuery(
+                    SELECT_WITH_ASSOCIATIONS +
+                    "WHERE a.scheduledAt >= :from AND a.scheduledAt < :to " +
+                    (status != null ? "AND a.status = :status " : "") +
+                    (hasCursor
+                        ? "AND (a.scheduledAt > :afterScheduledAt OR (a.scheduledAt = :afterScheduledAt AND a.id > :afterId)) "
+                        : "") +
+                    "ORDER BY a.scheduledAt ASC, a.id ASC",
+                    Appointment.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(limit);
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            if (hasCursor) {
+                query.setParameter("afterScheduledAt", afterScheduledAt);
+                query.setParameter("afterId", afterId);
+            }
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Streams all appointments starting in [from, to) ordered by (scheduledAt, id) from a database cursor,
+     * so arbitrarily large ranges are processed in constant memory. Each row is only valid inside {@code consumer}.
+     */
+    public void streamByScheduledAtRange(LocalDateTime from, LocalDateTime to, EAppointmentStatus status,
+                                         Consumer<Appointment> consumer) {
+        executeQuery(entityManager -> {
+            var query = entityManager.createQuery(
+                    SELECT_WITH_ASSOCIATIONS +
+                    "WHERE a.scheduledAt >= :from AND a.scheduledAt < :to " +
+                    (status != null ? "AND a.status = :status " : "") +
+                    "ORDER BY a.scheduledAt ASC, a.id ASC",
+                    Appointment.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+
+            try (Stream<Appointment> rows = query.getResultStream()) {
+                int count = 0;
+                for (Iterator<Appointment> it = rows.iterator(); it.hasNext(); ) {
+                    consumer.accept(it.next());
+                    if (++count % STREAM_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Find the next {@code limit} appointments starting after {@code after} with one of the given statuses.
+     */
+    public List<Appointment> findUpcoming(LocalDateTime after, Set<EAppointmentStatus> statuses, int limit) {
+        return executeQuery(entityManager -> entityManager.createQuery(
+                SELECT_WITH_ASSOCIATIONS +
+                "WHERE a.scheduledAt > :after AND a.status IN :statuses ORDER BY a.scheduledAt ASC",
+                Appointment.class)
+            .setParameter("after", after)
+            .setParameter("statuses", statuses)
+            .setMaxResults(limit)
+            .getResultList());
+    }
+
+    /**
+     * Computes all admin dashboard counters with a single aggregate query.
+     *
+     * @param todayStart   start of the "today" window, appointments are counted by {@code scheduledAt}
+     * @param todayEnd     end of the "today" window (exclusive)
+     * @param weekStart    start of the revenue window, appointments are counted by {@code completedAt}
+     * @param weekEnd      end of the revenue window (exclusive)
+     * @param monthStart   customers created at or after this instant count as new
+     */
+    public DashboardCounters aggregateDashboardCounters(LocalDateTime todayStart, LocalDateTime todayEnd,
+                                                        LocalDateTime weekStart, LocalDateTime weekEnd,
+                                                        LocalDateTime monthStart) {
+        String completedThisWeek =
+            "a.status = :completed AND a.completedAt >= :weekStart AND a.completedAt < :weekEnd";
+        Object[] row = executeQuery(entityManager -> entityManager.createQuery(
+                "SELECT " +
+                "count(a) FILTER (WHERE a.scheduledAt >= :todayStart AND a.scheduledAt < :todayEnd " +
+                "AND a.status IN (:pending, :confirmed)), " +
+                "count(a) FILTER (WHERE a.status = :pending), " +
+                "count(a) FILTER (WHERE a.status = :confirmed), " +
+                "count(a) FILTER (WHERE " + completedThisWeek + "), " +
+                "sum(t.price) FILTER (WHERE " + completedThisWeek + "), " +
+                "(SELECT count(u) FROM User u), " +
+                "(SELECT count(u) FROM User u WHERE u.createdAt >= :monthStart) " +
+                "FROM Appointment a JOIN a.treatment t",
+                Object[].class)
+            .setParameter("todayStart", todayStart)
+            .setParameter("todayEnd", todayEnd)
+            .setParameter("weekStart", weekStart)
+            .setParameter("weekEnd", weekEnd)
+            .setParameter("monthStart", monthStart)
+            .setParameter("pending", EAppointmentStatus.PENDING)
+            .setParameter("confirmed", EAppointmentStatus.CONFIRMED)
+            .setParameter("completed", EAppointmentStatus.COMPLETED)
+            .getSingleResult());
+
+        return new DashboardCounters(
+            ((Number) row[0]).intValue(),
+            ((Number) row[1]).intValue(),
+            ((Number) row[2]).intValue(),
+            ((Number) row[3]).intValue(),
+            row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO,
+            ((Number) row[5]).intValue(),
+            ((Number) row[6]).intValue()
+        );
+    }
+
+    /**
+     * Creates the exclusion constraint on overlapping active appointments if it does not exist yet.
+     * The schema is generated from entity metadata, which cannot express PostgreSQL EXCLUDE constraints.
+     */
+    public void createNoOverlapConstraint() {
+        executeQuery(entityManager -> {
+            entityManager.createNativeQuery(
+                "DO $$ BEGIN " +
+                "IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + NO_OVERLAP_CONSTRAINT + "') THEN " +
+                "ALTER TABLE appointments ADD CONSTRAINT " + NO_OVERLAP_CONSTRAINT + " EXCLUDE USING gist (" +
+                "tsrange(scheduled_at, scheduled_at + duration_minutes * interval '1 minute') WITH &&" +
+                ") WHERE (status IN ('PENDING', 'CONFIRMED')); " +
+                "END IF; " +
+                "END $$")
+                .executeUpdate();
+            return null;
+        });
+    }
+
+    public record DashboardCounters(
+        int todayAppointments,
+        int pendingAppointments,
+        int confirmedAppointments,
+        int completedThisWeek,
+        BigDecimal weeklyRevenue,
+        int totalCustomers,
+        int newCustomersThisMonth
+    ) {
     }
 }
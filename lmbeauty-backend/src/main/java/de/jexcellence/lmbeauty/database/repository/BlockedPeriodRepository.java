@@ -1,7 +1,6 @@
 package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.BlockedPeriod;
-import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Repository;
 
@@ -10,13 +9,16 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 @Repository
-public class BlockedPeriodRepository extends GenericCachedRepository<BlockedPeriod, Long, Long> {
+public class BlockedPeriodRepository extends IndexedCachedRepository<BlockedPeriod> {
+
+    private final SecondaryIndex<BlockedPeriod, LocalDateTime> byEnd = sortedIndex(BlockedPeriod::getEndDateTime);
 
     public BlockedPeriodRepository(
         final ExecutorService executor,
-        final EntityManagerFactory entityManagerFactory
+        final EntityManagerFactory entityManagerFactory,
+        final SecondaryIndexRegistry secondaryIndexRegistry
     ) {
-        super(executor, entityManagerFactory, BlockedPeriod.class, BlockedPeriod::getId);
+        super(executor, entityManagerFactory, BlockedPeriod.class, secondaryIndexRegistry);
     }
 
     /**
@@ -24,8 +26,8 @@ public class BlockedPeriodRepository extends GenericCachedRepository<BlockedPeri
      * A period overlaps if it starts before the range ends AND ends after the range starts.
      */
     public List<BlockedPeriod> findOverlapping(LocalDateTime start, LocalDateTime end) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(bp -> bp.getStartDateTime().isBefore(end) && bp.getEndDateTime().isAfter(start))
+        return byEnd.findAfter(start).stream()
+            .filter(bp -> bp.getStartDateTime().isBefore(end))
             .toList();
     }
 }
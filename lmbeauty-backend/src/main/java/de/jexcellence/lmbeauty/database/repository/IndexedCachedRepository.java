@@ -0,0 +1,90 @@
+package de.jexcellence.lmbeauty.database.repository;
+
+import de.jexcellence.hibernate.entity.AbstractEntity;
+import de.jexcellence.hibernate.repository.GenericCachedRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * {@link GenericCachedRepository} with support for in-memory {@link SecondaryIndex secondary indexes},
+ * turning lookups by slug, user, date and similar keys into map lookups instead of full scans.
+ */
+public abstract class IndexedCachedRepository<T extends AbstractEntity> extends GenericCachedRepository<T, Long, Long> {
+
+    // Reflection is resolved once per entity class, so a copy only pays the field reads and writes
+    private static final ClassValue<Copier> COPIERS = new ClassValue<>() {
+        @Override
+        protected Copier computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return new Copier(constructor, fields.toArray(Field[]::new));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Entity " + type.getName() + " has no no-arg constructor", e);
+            }
+        }
+    };
+
+    private final Class<T> entityType;
+    private final SecondaryIndexRegistry secondaryIndexRegistry;
+
+    protected IndexedCachedRepository(
+        final ExecutorService executor,
+        final EntityManagerFactory entityManagerFactory,
+        final Class<T> entityType,
+        final SecondaryIndexRegistry secondaryIndexRegistry
+    ) {
+        super(executor, entityManagerFactory, entityType, AbstractEntity::getId);
+        this.entityType = entityType;
+        this.secondaryIndexRegistry = secondaryIndexRegistry;
+    }
+
+    protected <K> SecondaryIndex<T, K> hashIndex(Function<T, K> keyExtractor) {
+        return secondaryIndexRegistry.register(SecondaryIndex.hashed(
+            entityType, keyExtractor, AbstractEntity::getId, () -> this.findAll(0, Integer.MAX_VALUE),
+            IndexedCachedRepository::copyOf));
+    }
+
+    protected <K extends Comparable<? super K>> SecondaryIndex<T, K> sortedIndex(Function<T, K> keyExtractor) {
+        return secondaryIndexRegistry.register(SecondaryIndex.sorted(
+            entityType, keyExtractor, AbstractEntity::getId, () -> this.findAll(0, Integer.MAX_VALUE),
+            IndexedCachedRepository::copyOf));
+    }
+
+    /**
+     * Shallow field-by-field copy of an entity. Associated entities and collections are shared with the original.
+     */
+    static <E> E copyOf(E entity) {
+        Copier copier = COPIERS.get(entity.getClass());
+        try {
+            Object copy = copier.constructor().newInstance();
+            for (Field field : copier.fields()) {
+                field.set(copy, field.get(entity));
+            }
+            @SuppressWarnings("unchecked")
+            E typed = (E) copy;
+            return typed;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot copy entity " + entity.getClass().getName(), e);
+        }
+    }
+
+    private record Copier(Constructor<?> constructor, Field[] fields) {
+    }
+}
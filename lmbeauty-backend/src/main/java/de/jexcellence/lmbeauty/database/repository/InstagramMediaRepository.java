@@ -0,0 +1,67 @@
+package de.jexcellence.lmbeauty.database.repository;
+
+import de.jexcellence.hibernate.repository.GenericCachedRepository;
+import de.jexcellence.lmbeauty.database.entity.InstagramMedia;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Repository
+public class InstagramMediaRepository extends GenericCachedRepository<InstagramMedia, Long, Long> {
+
+    public InstagramMediaRepository(
+        final ExecutorService executor,
+        final EntityManagerFactory entityManagerFactory
+    ) {
+        super(executor, entityManagerFactory, InstagramMedia.class, InstagramMedia::getId);
+    }
+
+    /**
+     * All synced posts, newest first.
+     */
+    public List<InstagramMedia> findAllNewestFirst() {
+        return executeQuery(entityManager -> entityManager.createQuery(
+                "SELECT DISTINCT m FROM InstagramMedia m LEFT JOIN FETCH m.carouselImages ORDER BY m.postedAt DESC",
+                InstagramMedia.class)
+            .getResultList());
+    }
+
+    /**
+     * Inserts new and updates changed posts in one transaction.
+     */
+    public void saveAll(List<InstagramMedia> media) {
+        if (media.isEmpty()) {
+            return;
+        }
+        executeQuery(entityManager -> {
+            for (InstagramMedia item : media) {
+                if (item.getId() == null) {
+                    entityManager.persist(item);
+                } else {
+                    entityManager.merge(item);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deletes posts together with their carousel images in one transaction.
+     */
+    public void deleteAll(List<InstagramMedia> media) {
+        if (media.isEmpty()) {
+            return;
+        }
+        executeQuery(entityManager -> {
+            for (InstagramMedia item : media) {
+                InstagramMedia managed = entityManager.find(InstagramMedia.class, item.getId());
+                if (managed != null) {
+                    entityManager.remove(managed);
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package de.jexcellence.lmbeauty.database.repository;
+
+import de.jexcellence.lmbeauty.database.entity.Appointment;
+import de.jexcellence.lmbeauty.database.entity.LoyaltyBalance;
+import de.jexcellence.lmbeauty.database.entity.LoyaltyStamp;
+import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.hibernate.repository.GenericCachedRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import org.springframework.stereotype.Repository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+@Repository
+public class LoyaltyBalanceRepository extends GenericCachedRepository<LoyaltyBalance, Long, Long> {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final SecondaryIndexRegistry secondaryIndexRegistry;
+
+    public LoyaltyBalanceRepository(
+        final ExecutorService executor,
+        final EntityManagerFactory entityManagerFactory,
+        final SecondaryIndexRegistry secondaryIndexRegistry
+    ) {
+        super(executor, entityManagerFactory, LoyaltyBalance.class, LoyaltyBalance::getId);
+        this.secondaryIndexRegistry = secondaryIndexRegistry;
+    }
+
+    public Optional<LoyaltyBalance> findByUserId(Long userId) {
+        return executeQuery(entityManager -> entityManager.createQuery(
+                "SELECT b FROM LoyaltyBalance b WHERE b.user.id = :userId", LoyaltyBalance.class)
+            .setParameter("userId", userId)
+            .getResultStream()
+            .findFirst());
+    }
+
+    /**
+     * Computes a balance from the user's stamps without persisting it,
+     * for users whose stamps predate the balance table.
+     */
+    public LoyaltyBalance computeFromStamps(Long userId) {
+        return executeQuery(entityManager -> computeFromStamps(entityManager, userId));
+    }
+
+    /**
+     * Creates a stamp for a completed appointment and increments the customer's balance in one transaction.
+     *
+     * @throws IllegalArgumentException if the appointment does not exist
+     */
+    public LoyaltyStamp recordStamp(Long appointmentId) {
+        return executeQuery(entityManager -> {
+            Appointment appointment = entityManager.createQuery(
+                    "SELECT a FROM Appointment a JOIN FETCH a.customer JOIN FETCH a.treatment WHERE a.id = :id",
+                    Appointment.class)
+                .setParameter("id", appointmentId)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+
+            LoyaltyBalance balance = lockBalance(entityManager, appointment.getCustomer().getId());
+
+            LoyaltyStamp stamp = new LoyaltyStamp();
+            stamp.setUser(appointment.getCustomer());
+            stamp.setAppointment(appointment);
+            stamp.setEarnedAt(LocalDateTime.now());
+            stamp.setRedeemed(false);
+            stamp.setCycleNumber(balance.getCurrentCycle());
+            entityManager.persist(stamp);
+
+            balance.setCurrentStamps(balance.getCurrentStamps() + 1);
+            balance.setTotalStamps(balance.getTotalStamps() + 1);
+            entityManager.flush();
+            return stamp;
+        });
+    }
+
+    /**
+     * Redeems the user's {@code stampCount} oldest unredeemed stamps and starts a new cycle with two set-based
+     * statements in one transaction. The guarded balance update takes the row lock first, so concurrent
+     * redemptions of the same user are serialized and can never spend the same stamps twice.
+     *
+     * @return the balance after redemption
+     * @throws IllegalStateException if the user has fewer than {@code stampCount} unredeemed stamps
+     */
+    public LoyaltyBalance redeem(Long userId, int stampCount) {
+        LoyaltyBalance result = executeQuery(entityManager -> {
+            LoyaltyBalance balance = lockBalance(entityManager, userId);
+            entityManager.flush();
+
+            int updated = entityManager.createNativeQuery(
+                    "UPDATE loyalty_balance " +
+                    "SET current_stamps = current_stamps - :stampCount, current_cycle = current_cycle + 1 " +
+                    "WHERE user_id = :userId AND current_stamps >= :stampCount")
+                .setParameter("stampCount", stampCount)
+                .setParameter("userId", userId)
+                .executeUpdate();
+            if (updated == 0) {
+                throw new IllegalStateException("Not enough stamps to redeem reward. Need " +
+                    stampCount + " stamps, have " + balance.getCurrentStamps());
+            }
+
+            entityManager.createNativeQuery(
+                    "UPDATE loyalty_stamps SET redeemed = true, redeemed_at = :now " +
+                    "WHERE id IN (" +
+                    "SELECT id FROM loyalty_stamps WHERE user_id = :userId AND redeemed = false " +
+                    "ORDER BY earned_at, id LIMIT :stampCount)")
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("userId", userId)
+                .setParameter("stampCount", stampCount)
+                .executeUpdate();
+
+            entityManager.refresh(balance);
+            return balance;
+        });
+        // The stamp update bypassed entity events
+        secondaryIndexRegistry.invalidate(LoyaltyStamp.class);
+        return result;
+    }
+
+    /**
+     * Loads the user's balance with a row lock, creating it from existing stamps if it does not exist yet.
+     * <p>
+     * A locking read of a missing row locks nothing, so two first stamps of a user would both insert a balance
+     * and one would fail on the unique user. The row is therefore created in its own transaction, where losing
+     * that race is harmless, and then read with the lock like an existing one.
+     */
+    private LoyaltyBalance lockBalance(EntityManager entityManager, Long userId) {
+        Optional<LoyaltyBalance> existing = findForUpdate(entityManager, userId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        createBalance(userId);
+        return findForUpdate(entityManager, userId)
+            .orElseThrow(() -> new IllegalStateException("Loyalty balance of user " + userId + " could not be created"));
+    }
+
+    private static Optional<LoyaltyBalance> findForUpdate(EntityManager entityManager, Long userId) {
+        return entityManager.createQuery(
+                "SELECT b FROM LoyaltyBalance b WHERE b.user.id = :userId", LoyaltyBalance.class)
+            .setParameter("userId", userId)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultStream()
+            .findFirst();
+    }
+
+    private void createBalance(Long userId) {
+        try {
+            executeQuery(entityManager -> {
+                entityManager.persist(computeFromStamps(entityManager, userId));
+                entityManager.flush();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // A concurrent stamp or redemption created the row first
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LoyaltyBalance computeFromStamps(EntityManager entityManager, Long userId) {
+        Object[] row = entityManager.createQuery(
+                "SELECT count(s) FILTER (WHERE s.redeemed = false), count(s), max(s.cycleNumber) " +
+                "FROM LoyaltyStamp s WHERE s.user.id = :userId",
+                Object[].class)
+            .setParameter("userId", userId)
+            .getSingleResult();
+
+        LoyaltyBalance balance = new LoyaltyBalance();
+        balance.setUser(entityManager.getReference(User.class, userId));
+        balance.setCurrentStamps(((Number) row[0]).intValue());
+        balance.setTotalStamps(((Number) row[1]).intValue());
+        balance.setCurrentCycle(row[2] != null ? ((Number) row[2]).intValue() : 1);
+        return balance;
+    }
+}
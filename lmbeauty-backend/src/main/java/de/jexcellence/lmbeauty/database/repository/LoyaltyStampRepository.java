@@ -1,7 +1,6 @@
 package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.LoyaltyStamp;
-import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Repository;
 
@@ -10,61 +9,70 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 @Repository
-public class LoyaltyStampRepository extends GenericCachedRepository<LoyaltyStamp, Long, Long> {
+public class LoyaltyStampRepository extends IndexedCachedRepository<LoyaltyStamp> {
+
+    private final SecondaryIndex<LoyaltyStamp, Long> byUserId = hashIndex(s -> s.getUser().getId());
+    private final SecondaryIndex<LoyaltyStamp, Long> byAppointmentId = hashIndex(
+        s -> s.getAppointment() != null ? s.getAppointment().getId() : null);
 
     public LoyaltyStampRepository(
         final ExecutorService executor,
-        final EntityManagerFactory entityManagerFactory
+        final EntityManagerFactory entityManagerFactory,
+        final SecondaryIndexRegistry secondaryIndexRegistry
     ) {
-        super(executor, entityManagerFactory, LoyaltyStamp.class, LoyaltyStamp::getId);
+        super(executor, entityManagerFactory, LoyaltyStamp.class, secondaryIndexRegistry);
     }
 
     public List<LoyaltyStamp> findByUserId(Long userId) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(s -> s.getUser().getId().equals(userId))
+        return byUserId.find(userId).stream()
             .sorted(Comparator.comparing(LoyaltyStamp::getEarnedAt).reversed())
             .toList();
     }
 
+    /**
+     * Stamps of a user, newest first, with appointment and treatment loaded for display.
+     */
+    public List<LoyaltyStamp> findHistoryByUserId(Long userId) {
+        return executeQuery(entityManager -> entityManager.createQuery(
+                "SELECT s FROM LoyaltyStamp s LEFT JOIN FETCH s.appointment a LEFT JOIN FETCH a.treatment "
+                    + "WHERE s.user.id = :userId ORDER BY s.earnedAt DESC",
+                LoyaltyStamp.class)
+            .setParameter("userId", userId)
+            .getResultList());
+    }
+
     public List<LoyaltyStamp> findByUserIdAndRedeemed(Long userId, boolean redeemed) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(s -> s.getUser().getId().equals(userId))
+        return byUserId.find(userId).stream()
             .filter(s -> s.isRedeemed() == redeemed)
             .sorted(Comparator.comparing(LoyaltyStamp::getEarnedAt))
             .toList();
     }
 
     public List<LoyaltyStamp> findByUserIdAndCycleNumber(Long userId, int cycleNumber) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(s -> s.getUser().getId().equals(userId))
+        return byUserId.find(userId).stream()
             .filter(s -> s.getCycleNumber() == cycleNumber)
             .sorted(Comparator.comparing(LoyaltyStamp::getEarnedAt))
             .toList();
     }
 
     public int countByUserIdAndRedeemedFalse(Long userId) {
-        return (int) this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(s -> s.getUser().getId().equals(userId))
+        return (int) byUserId.find(userId).stream()
             .filter(s -> !s.isRedeemed())
             .count();
     }
 
     public int countByUserId(Long userId) {
-        return (int) this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(s -> s.getUser().getId().equals(userId))
-            .count();
+        return byUserId.find(userId).size();
     }
 
     public int getCurrentCycleNumber(Long userId) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(s -> s.getUser().getId().equals(userId))
+        return byUserId.find(userId).stream()
             .mapToInt(LoyaltyStamp::getCycleNumber)
             .max()
             .orElse(1);
     }
 
     public boolean existsByAppointmentId(Long appointmentId) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .anyMatch(s -> s.getAppointment().getId().equals(appointmentId));
+        return byAppointmentId.contains(appointmentId);
     }
 }
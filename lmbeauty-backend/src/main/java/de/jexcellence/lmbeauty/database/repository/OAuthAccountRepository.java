@@ -2,7 +2,7 @@ package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.OAuthAccount;
 import de.jexcellence.lmbeauty.database.entity.OAuthProvider;
-import de.jexcellence.hibernate.repository.GenericCachedRepository;
+import de.jexcellence.lmbeauty.database.entity.User;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Repository;
 
@@ -12,13 +12,16 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 @Repository
-public class OAuthAccountRepository extends GenericCachedRepository<OAuthAccount, Long, Long> {
+public class OAuthAccountRepository extends IndexedCachedRepository<OAuthAccount> {
+
+    private final SecondaryIndex<OAuthAccount, Long> byUserId = hashIndex(account -> account.getUser().getId());
 
     public OAuthAccountRepository(
         ExecutorService executor,
-        EntityManagerFactory entityManagerFactory
+        EntityManagerFactory entityManagerFactory,
+        SecondaryIndexRegistry secondaryIndexRegistry
     ) {
-        super(executor, entityManagerFactory, OAuthAccount.class, OAuthAccount::getId);
+        super(executor, entityManagerFactory, OAuthAccount.class, secondaryIndexRegistry);
     }
 
     public Optional<OAuthAccount> findByProviderAndProviderUserId(OAuthProvider provider, String providerUserId) {
@@ -28,16 +31,30 @@ public class OAuthAccountRepository extends GenericCachedRepository<OAuthAccount
         )));
     }
 
-    public Optional<OAuthAccount> findByProviderAndProviderUserIdWithUser(OAuthProvider provider, String providerUserId) {
+    /**
+     * Finds the user signing in with a provider account: the user the account is linked to, otherwise
+     * the user with the given email. The account of the result is null if it is not linked yet.
+     * Both lookups run in one transaction and each probes a unique index, so returning users cost one query.
+     */
+    public Optional<LoginMatch> findLoginMatch(OAuthProvider provider, String providerUserId, String email) {
         return executeQuery(entityManager -> {
-            var results = entityManager.createQuery(
-                "SELECT oa FROM OAuthAccount oa JOIN FETCH oa.user WHERE oa.provider = :provider AND oa.providerUserId = :providerUserId",
-                OAuthAccount.class)
+            List<OAuthAccount> linked = entityManager.createQuery(
+                    "SELECT oa FROM OAuthAccount oa JOIN FETCH oa.user "
+                        + "WHERE oa.provider = :provider AND oa.providerUserId = :providerUserId",
+                    OAuthAccount.class)
                 .setParameter("provider", provider)
                 .setParameter("providerUserId", providerUserId)
                 .getResultList();
-            
-            return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+            if (!linked.isEmpty()) {
+                OAuthAccount account = linked.getFirst();
+                return Optional.of(new LoginMatch(account.getUser(), account));
+            }
+
+            return entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
+                .setParameter("email", email)
+                .getResultStream()
+                .findFirst()
+                .map(user -> new LoginMatch(user, null));
         });
     }
 
@@ -49,9 +66,7 @@ public class OAuthAccountRepository extends GenericCachedRepository<OAuthAccount
     }
 
     public List<OAuthAccount> findByUserId(Long userId) {
-        return findAll(0, Integer.MAX_VALUE).stream()
-            .filter(account -> account.getUser().getId().equals(userId))
-            .toList();
+        return byUserId.find(userId);
     }
 
     public void deleteByUserIdAndProvider(Long userId, OAuthProvider provider) {
@@ -64,5 +79,10 @@ public class OAuthAccountRepository extends GenericCachedRepository<OAuthAccount
             entityManager.flush();
             return null;
         });
+        // Bulk deletes bypass entity events
+        byUserId.invalidate();
+    }
+
+    public record LoginMatch(User user, OAuthAccount account) {
     }
 }
@@ -0,0 +1,196 @@
+package de.jexcellence.lmbeauty.database.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory secondary index from a key extracted from an entity to all entities with that key.
+ * <p>
+ * The index is built from a single full load on first access and afterwards kept in sync by
+ * {@link SecondaryIndexRegistry}, which forwards the committed state of every insert, update and delete.
+ * It therefore also reflects writes that bypass the repository's own entity cache.
+ * Bulk JPQL statements bypass entity events; repositories issuing them must call {@link #invalidate()}.
+ * <p>
+ * The index keeps its own copies of the entities and every lookup returns fresh copies, so callers may
+ * change what they get, e.g. before an update, without other readers seeing the change. Lazy associations
+ * of the copies are not initialized; callers that navigate them must load the entities with a fetch join.
+ *
+ * @param <E> entity type
+ * @param <K> key type, entities with a {@code null} key are not indexed
+ */
+public final class SecondaryIndex<E, K> {
+
+    private final Class<E> entityType;
+    private final Function<E, K> keyExtractor;
+    private final Function<E, Long> idExtractor;
+    private final Supplier<List<E>> loader;
+    private final UnaryOperator<E> copier;
+    private final Map<K, Map<Long, E>> entitiesByKey;
+    private final Map<Long, K> keyById = new HashMap<>();
+    private boolean loaded;
+
+    private SecondaryIndex(Class<E> entityType, Function<E, K> keyExtractor, Function<E, Long> idExtractor,
+                           Supplier<List<E>> loader, UnaryOperator<E> copier, Map<K, Map<Long, E>> entitiesByKey) {
+        this.entityType = entityType;
+        this.keyExtractor = keyExtractor;
+        this.idExtractor = idExtractor;
+        this.loader = loader;
+        this.copier = copier;
+        this.entitiesByKey = entitiesByKey;
+    }
+
+    /**
+     * Creates a hash-based index of immutable values answering exact key lookups in O(1).
+     */
+    public static <E, K> SecondaryIndex<E, K> hashed(Class<E> entityType, Function<E, K> keyExtractor,
+                                                     Function<E, Long> idExtractor, Supplier<List<E>> loader) {
+        return hashed(entityType, keyExtractor, idExtractor, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a hash-based index answering exact key lookups in O(1).
+     *
+     * @param copier copies an entity, applied to everything the index stores and returns
+     */
+    public static <E, K> SecondaryIndex<E, K> hashed(Class<E> entityType, Function<E, K> keyExtractor,
+                                                     Function<E, Long> idExtractor, Supplier<List<E>> loader,
+                                                     UnaryOperator<E> copier) {
+        return new SecondaryIndex<>(entityType, keyExtractor, idExtractor, loader, copier, new HashMap<>());
+    }
+
+    /**
+     * Creates a sorted index of immutable values that additionally answers range lookups in O(log n).
+     */
+    public static <E, K extends Comparable<? super K>> SecondaryIndex<E, K> sorted(
+            Class<E> entityType, Function<E, K> keyExtractor, Function<E, Long> idExtractor,
+            Supplier<List<E>> loader) {
+        return sorted(entityType, keyExtractor, idExtractor, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a sorted index that additionally answers range lookups in O(log n).
+     *
+     * @param copier copies an entity, applied to everything the index stores and returns
+     */
+    public static <E, K extends Comparable<? super K>> SecondaryIndex<E, K> sorted(
+            Class<E> entityType, Function<E, K> keyExtractor, Function<E, Long> idExtractor,
+            Supplier<List<E>> loader, UnaryOperator<E> copier) {
+        return new SecondaryIndex<>(entityType, keyExtractor, idExtractor, loader, copier, new TreeMap<>());
+    }
+
+    public Class<E> getEntityType() {
+        return entityType;
+    }
+
+    public synchronized List<E> find(K key) {
+        ensureLoaded();
+        Map<Long, E> entities = key == null ? null : entitiesByKey.get(key);
+        return entities == null ? List.of() : entities.values().stream().map(copier).toList();
+    }
+
+    public synchronized boolean contains(K key) {
+        ensureLoaded();
+        return key != null && entitiesByKey.containsKey(key);
+    }
+
+    /**
+     * Finds all entities with {@code from <= key <= to}. Only supported by sorted indexes.
+     */
+    public synchronized List<E> findBetween(K from, K to) {
+        ensureLoaded();
+        return flatten(sortedMap().subMap(from, true, to, true).values());
+    }
+
+    /**
+     * Finds all entities with {@code key > from}. Only supported by sorted indexes.
+     */
+    public synchronized List<E> findAfter(K from) {
+        ensureLoaded();
+        return flatten(sortedMap().tailMap(from, false).values());
+    }
+
+    /**
+     * Drops the index so that it is rebuilt from the database on next access.
+     */
+    public synchronized void invalidate() {
+        entitiesByKey.clear();
+        keyById.clear();
+        loaded = false;
+    }
+
+    synchronized void onSaved(Object entity) {
+        if (!loaded) {
+            return;
+        }
+        // The committed instance stays with the writer, which may keep changing it
+        E typed = copier.apply(entityType.cast(entity));
+        Long id = idExtractor.apply(typed);
+        K newKey = keyExtractor.apply(typed);
+        remove(id, keyById.get(id));
+        add(id, newKey, typed);
+    }
+
+    synchronized void onDeleted(Object id) {
+        if (!loaded || !(id instanceof Long entityId)) {
+            return;
+        }
+        remove(entityId, keyById.get(entityId));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        for (E entity : loader.get()) {
+            add(idExtractor.apply(entity), keyExtractor.apply(entity), copier.apply(entity));
+        }
+        loaded = true;
+    }
+
+    private void add(Long id, K key, E entity) {
+        keyById.put(id, key);
+        if (key != null) {
+            entitiesByKey.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(id, entity);
+        }
+    }
+
+    private void remove(Long id, K key) {
+        keyById.remove(id);
+        if (key == null) {
+            return;
+        }
+        Map<Long, E> entities = entitiesByKey.get(key);
+        if (entities != null) {
+            entities.remove(id);
+            if (entities.isEmpty()) {
+                entitiesByKey.remove(key);
+            }
+        }
+    }
+
+    private NavigableMap<K, Map<Long, E>> sortedMap() {
+        if (!(entitiesByKey instanceof NavigableMap<K, Map<Long, E>> navigableMap)) {
+            throw new UnsupportedOperationException("Range lookups require a sorted index");
+        }
+        return navigableMap;
+    }
+
+    private List<E> flatten(Collection<Map<Long, E>> groups) {
+        List<E> entities = new ArrayList<>();
+        for (Map<Long, E> group : groups) {
+            for (E entity : group.values()) {
+                entities.add(copier.apply(entity));
+            }
+        }
+        return entities;
+    }
+}
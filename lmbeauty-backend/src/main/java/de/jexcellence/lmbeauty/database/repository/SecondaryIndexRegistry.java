@@ -0,0 +1,104 @@
+package de.jexcellence.lmbeauty.database.repository;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every registered {@link SecondaryIndex} in sync with committed entity changes and notifies
+ * other in-memory caches that registered a change listener.
+ * Registered as a Hibernate post-commit listener in {@link de.jexcellence.lmbeauty.config.HibernateConfig},
+ * so rolled back writes never reach an index.
+ */
+public class SecondaryIndexRegistry implements
+        PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final Map<Class<?>, List<SecondaryIndex<?, ?>>> indexes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Consumer<Object>>> changeListeners = new ConcurrentHashMap<>();
+
+    public <E, K> SecondaryIndex<E, K> register(SecondaryIndex<E, K> index) {
+        indexes.computeIfAbsent(index.getEntityType(), type -> new CopyOnWriteArrayList<>()).add(index);
+        return index;
+    }
+
+    /**
+     * Calls {@code listener} with the committed state of every inserted, updated or deleted entity of the given type.
+     */
+    public <E> void onCommittedChange(Class<E> entityType, Consumer<? super E> listener) {
+        changeListeners.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>())
+            .add(entity -> listener.accept(entityType.cast(entity)));
+    }
+
+    /**
+     * Drops all indexes of the given entity type, e.g. after a bulk statement that bypassed entity events.
+     */
+    public void invalidate(Class<?> entityType) {
+        for (SecondaryIndex<?, ?> index : indexes.getOrDefault(entityType, List.of())) {
+            index.invalidate();
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        for (SecondaryIndex<?, ?> index : indexesFor(event.getPersister())) {
+            index.onSaved(event.getEntity());
+        }
+        notifyListeners(event.getPersister(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        for (SecondaryIndex<?, ?> index : indexesFor(event.getPersister())) {
+            index.onSaved(event.getEntity());
+        }
+        notifyListeners(event.getPersister(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        for (SecondaryIndex<?, ?> index : indexesFor(event.getPersister())) {
+            index.onDeleted(event.getId());
+        }
+        notifyListeners(event.getPersister(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return indexes.containsKey(persister.getMappedClass()) || changeListeners.containsKey(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was applied before commit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was applied before commit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was applied before commit
+    }
+
+    private List<SecondaryIndex<?, ?>> indexesFor(EntityPersister persister) {
+        return indexes.getOrDefault(persister.getMappedClass(), List.of());
+    }
+
+    private void notifyListeners(EntityPersister persister, Object entity) {
+        for (Consumer<Object> listener : changeListeners.getOrDefault(persister.getMappedClass(), List.of())) {
+            listener.accept(entity);
+        }
+    }
+}
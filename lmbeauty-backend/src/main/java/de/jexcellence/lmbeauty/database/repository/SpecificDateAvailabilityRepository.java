@@ -1,7 +1,6 @@
 package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.SpecificDateAvailability;
-import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Repository;
 
@@ -10,36 +9,34 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 @Repository
-public class SpecificDateAvailabilityRepository extends GenericCachedRepository<SpecificDateAvailability, Long, Long> {
+public class SpecificDateAvailabilityRepository extends IndexedCachedRepository<SpecificDateAvailability> {
+
+    private final SecondaryIndex<SpecificDateAvailability, LocalDate> byDate = sortedIndex(SpecificDateAvailability::getDate);
+    private final SecondaryIndex<SpecificDateAvailability, Boolean> byActive = hashIndex(SpecificDateAvailability::isActive);
 
     public SpecificDateAvailabilityRepository(
         final ExecutorService executor,
-        final EntityManagerFactory entityManagerFactory
+        final EntityManagerFactory entityManagerFactory,
+        final SecondaryIndexRegistry secondaryIndexRegistry
     ) {
-        super(executor, entityManagerFactory, SpecificDateAvailability.class, SpecificDateAvailability::getId);
+        super(executor, entityManagerFactory, SpecificDateAvailability.class, secondaryIndexRegistry);
     }
 
     public List<SpecificDateAvailability> findByDateAndActiveTrue(LocalDate date) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(sda -> sda.isActive() && sda.getDate().equals(date))
+        return byDate.find(date).stream()
+            .filter(SpecificDateAvailability::isActive)
             .toList();
     }
 
     public List<SpecificDateAvailability> findByDate(LocalDate date) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(sda -> sda.getDate().equals(date))
-            .toList();
+        return byDate.find(date);
     }
 
     public List<SpecificDateAvailability> findByActiveTrue() {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(SpecificDateAvailability::isActive)
-            .toList();
+        return byActive.find(true);
     }
 
     public List<SpecificDateAvailability> findByDateRange(LocalDate startDate, LocalDate endDate) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(sda -> !sda.getDate().isBefore(startDate) && !sda.getDate().isAfter(endDate))
-            .toList();
+        return byDate.findBetween(startDate, endDate);
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,11 @@ public interface TreatmentRefillRepository extends JpaRepository<TreatmentRefill
      */
     List<TreatmentRefill> findByTreatmentIdAndActiveTrue(Long treatmentId);
 
+    /**
+     * Find all active refill options of all treatments, ordered by week threshold.
+     */
+    List<TreatmentRefill> findByActiveTrueOrderByWeekThresholdAsc();
+
     /**
      * Find all refill options for a specific treatment (including inactive).
      */
@@ -44,6 +50,13 @@ public interface TreatmentRefillRepository extends JpaRepository<TreatmentRefill
     Optional<TreatmentRefill> findBestRefillForWeeks(@Param("treatmentId") Long treatmentId, 
                                                      @Param("weeksSinceLastAppointment") Integer weeksSinceLastAppointment);
 
+    /**
+     * Find all active refill options of several treatments at once, ordered by week threshold.
+     */
+    @Query("SELECT tr FROM TreatmentRefill tr WHERE tr.treatment.id IN :treatmentIds " +
+           "AND tr.active = true ORDER BY tr.weekThreshold ASC")
+    List<TreatmentRefill> findActiveByTreatmentIdIn(@Param("treatmentIds") Collection<Long> treatmentIds);
+
     /**
      * Find refill option by treatment and exact week threshold.
      */
@@ -2,7 +2,6 @@ package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.Treatment;
 import de.jexcellence.lmbeauty.type.ETreatmentCategory;
-import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Repository;
 
@@ -11,48 +10,48 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 @Repository
-public class TreatmentRepository extends GenericCachedRepository<Treatment, Long, Long> {
+public class TreatmentRepository extends IndexedCachedRepository<Treatment> {
+
+    private final SecondaryIndex<Treatment, String> bySlug = hashIndex(Treatment::getSlug);
+    private final SecondaryIndex<Treatment, String> byUrlSlug = hashIndex(Treatment::getUrlSlug);
+    private final SecondaryIndex<Treatment, ETreatmentCategory> byCategory = hashIndex(Treatment::getCategory);
+    private final SecondaryIndex<Treatment, Boolean> byActive = hashIndex(Treatment::isActive);
 
     public TreatmentRepository(
         final ExecutorService executor,
-        final EntityManagerFactory entityManagerFactory
+        final EntityManagerFactory entityManagerFactory,
+        final SecondaryIndexRegistry secondaryIndexRegistry
     ) {
-        super(executor, entityManagerFactory, Treatment.class, Treatment::getId);
+        super(executor, entityManagerFactory, Treatment.class, secondaryIndexRegistry);
     }
 
     public List<Treatment> findByActiveTrue() {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(Treatment::isActive)
-            .toList();
+        return byActive.find(true);
     }
 
     public Optional<Treatment> findBySlug(String slug) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> t.isActive() && slug.equals(t.getSlug()))
+        return bySlug.find(slug).stream()
+            .filter(Treatment::isActive)
             .findFirst();
     }
 
     public Optional<Treatment> findBySlugIncludingInactive(String slug) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> slug.equals(t.getSlug()))
-            .findFirst();
+        return bySlug.find(slug).stream().findFirst();
     }
 
     public List<Treatment> findByCategory(ETreatmentCategory category) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> t.isActive() && t.getCategory() == category)
+        return byCategory.find(category).stream()
+            .filter(Treatment::isActive)
             .toList();
     }
 
     public List<Treatment> findByCategoryAndActiveTrue(ETreatmentCategory category) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> t.isActive() && t.getCategory() == category)
-            .toList();
+        return findByCategory(category);
     }
 
     public List<Treatment> findByCategoryOrderBySortOrder(ETreatmentCategory category) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> t.isActive() && t.getCategory() == category)
+        return byCategory.find(category).stream()
+            .filter(Treatment::isActive)
             .sorted((a, b) -> {
                 int orderA = a.getSortOrder() != null ? a.getSortOrder() : 0;
                 int orderB = b.getSortOrder() != null ? b.getSortOrder() : 0;
@@ -62,19 +61,16 @@ public class TreatmentRepository extends GenericCachedRepository<Treatment, Long
     }
 
     public boolean existsBySlug(String slug) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .anyMatch(t -> slug.equals(t.getSlug()));
+        return bySlug.contains(slug);
     }
 
     public List<Treatment> findByUrlSlugAndActiveTrue(String urlSlug) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> t.isActive() && urlSlug.equals(t.getUrlSlug()))
+        return byUrlSlug.find(urlSlug).stream()
+            .filter(Treatment::isActive)
             .toList();
     }
 
     public Optional<Treatment> findByUrlSlug(String urlSlug) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(t -> urlSlug.equals(t.getUrlSlug()))
-            .findFirst();
+        return byUrlSlug.find(urlSlug).stream().findFirst();
     }
 }
@@ -1,6 +1,7 @@
 package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.lmbeauty.type.EAppointmentStatus;
 import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.data.domain.Page;
@@ -8,9 +9,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
@@ -52,6 +56,18 @@ public class UserRepository extends GenericCachedRepository<User, Long, Long> {
         return this.findByUsernameAsync(username).thenApply(Objects::nonNull);
     }
 
+    /**
+     * All usernames starting with the prefix, so a free variant can be picked with one query.
+     *
+     * @param prefix username prefix without LIKE wildcards
+     */
+    public Set<String> findUsernamesStartingWith(String prefix) {
+        return executeQuery(entityManager -> Set.copyOf(entityManager.createQuery(
+                "SELECT u.username FROM User u WHERE u.username LIKE :prefix", String.class)
+            .setParameter("prefix", prefix + "%")
+            .getResultList()));
+    }
+
     public Page<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(
         String username, String email, Pageable pageable) {
         var allUsers = this.findAll(0, Integer.MAX_VALUE);
@@ -67,4 +83,65 @@ public class UserRepository extends GenericCachedRepository<User, Long, Long> {
 
         return new PageImpl<>(paged, pageable, filtered.size());
     }
+
+    /**
+     * Loads every customer together with appointment and loyalty statistics in a single grouped query.
+     *
+     * @param search case-insensitive fragment matched against first name, last name and email, or {@code null} for all
+     */
+    public List<CustomerStats> findCustomerStats(String search) {
+        boolean filtered = search != null && !search.isBlank();
+        String where = filtered
+            ? "WHERE lower(u.firstName) LIKE :search ESCAPE '\\' " +
+              "OR lower(u.lastName) LIKE :search ESCAPE '\\' " +
+              "OR lower(u.email) LIKE :search ESCAPE '\\' "
+            : "";
+
+        return executeQuery(entityManager -> {
+            var query = entityManager.createQuery(
+                    "SELECT u.id, u.firstName, u.lastName, u.email, u.phone, " +
+                    "count(a), " +
+                    "count(a) FILTER (WHERE a.status = :completed), " +
+                    "max(a.completedAt) FILTER (WHERE a.status = :completed), " +
+                    "(SELECT count(s) FROM LoyaltyStamp s WHERE s.user = u AND s.redeemed = false) " +
+                    "FROM User u LEFT JOIN Appointment a ON a.customer = u " +
+                    where +
+                    "GROUP BY u.id, u.firstName, u.lastName, u.email, u.phone",
+                    Object[].class)
+                .setParameter("completed", EAppointmentStatus.COMPLETED);
+            if (filtered) {
+                query.setParameter("search", "%" + escapeLike(search.toLowerCase()) + "%");
+            }
+
+            return query.getResultList().stream()
+                .map(row -> new CustomerStats(
+                    (Long) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    (String) row[4],
+                    ((Number) row[5]).intValue(),
+                    ((Number) row[6]).intValue(),
+                    (LocalDateTime) row[7],
+                    ((Number) row[8]).intValue()))
+                .toList();
+        });
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public record CustomerStats(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        int totalAppointments,
+        int completedAppointments,
+        LocalDateTime lastVisit,
+        int unredeemedStamps
+    ) {
+    }
 }
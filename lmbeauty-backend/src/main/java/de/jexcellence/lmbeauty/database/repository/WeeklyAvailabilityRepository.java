@@ -1,7 +1,6 @@
 package de.jexcellence.lmbeauty.database.repository;
 
 import de.jexcellence.lmbeauty.database.entity.WeeklyAvailability;
-import de.jexcellence.hibernate.repository.GenericCachedRepository;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.stereotype.Repository;
 
@@ -10,30 +9,30 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 @Repository
-public class WeeklyAvailabilityRepository extends GenericCachedRepository<WeeklyAvailability, Long, Long> {
+public class WeeklyAvailabilityRepository extends IndexedCachedRepository<WeeklyAvailability> {
+
+    private final SecondaryIndex<WeeklyAvailability, DayOfWeek> byDayOfWeek = hashIndex(WeeklyAvailability::getDayOfWeek);
+    private final SecondaryIndex<WeeklyAvailability, Boolean> byActive = hashIndex(WeeklyAvailability::isActive);
 
     public WeeklyAvailabilityRepository(
         final ExecutorService executor,
-        final EntityManagerFactory entityManagerFactory
+        final EntityManagerFactory entityManagerFactory,
+        final SecondaryIndexRegistry secondaryIndexRegistry
     ) {
-        super(executor, entityManagerFactory, WeeklyAvailability.class, WeeklyAvailability::getId);
+        super(executor, entityManagerFactory, WeeklyAvailability.class, secondaryIndexRegistry);
     }
 
     public List<WeeklyAvailability> findByDayOfWeekAndActiveTrue(DayOfWeek dayOfWeek) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(wa -> wa.isActive() && wa.getDayOfWeek() == dayOfWeek)
+        return byDayOfWeek.find(dayOfWeek).stream()
+            .filter(WeeklyAvailability::isActive)
             .toList();
     }
 
     public List<WeeklyAvailability> findByDayOfWeek(DayOfWeek dayOfWeek) {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(wa -> wa.getDayOfWeek() == dayOfWeek)
-            .toList();
+        return byDayOfWeek.find(dayOfWeek);
     }
 
     public List<WeeklyAvailability> findByActiveTrue() {
-        return this.findAll(0, Integer.MAX_VALUE).stream()
-            .filter(WeeklyAvailability::isActive)
-            .toList();
+        return byActive.find(true);
     }
 }
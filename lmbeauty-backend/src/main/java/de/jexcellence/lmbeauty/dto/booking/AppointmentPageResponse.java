@@ -0,0 +1,13 @@
+package de.jexcellence.lmbeauty.dto.booking;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated appointment listing.
+ *
+ * @param nextCursor opaque cursor for the following page, or {@code null} if this is the last page
+ */
+public record AppointmentPageResponse(
+    List<AppointmentResponse> items,
+    String nextCursor
+) {}
@@ -88,6 +88,13 @@ public class ServiceDto {
             instagramImageUrl = instagramService.getImageForTreatment(treatment.getSlug()).orElse(null);
         }
 
+        return fromTreatment(treatment, treatment.getRefillOptions(), instagramImageUrl);
+    }
+
+    /**
+     * Convert Treatment entity to frontend ServiceDto using already loaded refill options.
+     */
+    public static ServiceDto fromTreatment(Treatment treatment, List<TreatmentRefill> refillOptions, String instagramImageUrl) {
         return ServiceDto.builder()
                 .id(treatment.getUrlSlug() != null ? treatment.getUrlSlug() : treatment.getSlug())
                 .slug(treatment.getSlug())
@@ -107,7 +114,7 @@ public class ServiceDto {
                 .badge(generateBadge(treatment))
                 .bookingUrl("/#contact?service=" + (treatment.getUrlSlug() != null ? treatment.getUrlSlug() : treatment.getSlug()))
                 .details(ServiceDetailsDto.builder()
-                        .refillPrices(generateRefillPrices(treatment))
+                        .refillPrices(generateRefillPrices(treatment, refillOptions))
                         .idealFor(generateIdealFor(treatment))
                         .includes(generateIncludes(treatment))
                         .build())
@@ -156,12 +163,12 @@ public class ServiceDto {
     /**
      * Generate refill prices from treatment refill options.
      */
-    private static List<RefillPriceDto> generateRefillPrices(Treatment treatment) {
-        if (!treatment.isHasRefillOptions() || treatment.getRefillOptions() == null || treatment.getRefillOptions().isEmpty()) {
+    private static List<RefillPriceDto> generateRefillPrices(Treatment treatment, List<TreatmentRefill> refillOptions) {
+        if (!treatment.isHasRefillOptions() || refillOptions == null || refillOptions.isEmpty()) {
             return List.of();
         }
 
-        return treatment.getRefillOptions().stream()
+        return refillOptions.stream()
                 .filter(TreatmentRefill::isActive)
                 .map(refill -> RefillPriceDto.builder()
                         .weeks(
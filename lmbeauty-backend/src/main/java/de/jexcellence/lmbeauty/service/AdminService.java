@@ -11,19 +11,30 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final Set<EAppointmentStatus> ACTIVE_STATUSES = Set.of(
+        EAppointmentStatus.PENDING,
+        EAppointmentStatus.CONFIRMED
+    );
+    private static final int UPCOMING_LIMIT = 5;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String CURSOR_SEPARATOR = "_";
+
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final LoyaltyService loyaltyService;
@@ -44,67 +55,24 @@ public class AdminService {
         LocalDate monthStart = today.withDayOfMonth(1);
         LocalDateTime monthStartTime = monthStart.atStartOfDay();
 
-        List<Appointment> allAppointments = appointmentRepository.findAll(0, Integer.MAX_VALUE);
-        
-        // Today's appointments
-        int todayAppointments = (int) allAppointments.stream()
-            .filter(a -> !a.getScheduledAt().isBefore(todayStart) && a.getScheduledAt().isBefore(todayEnd))
-            .filter(a -> a.getStatus() == EAppointmentStatus.PENDING || a.getStatus() == EAppointmentStatus.CONFIRMED)
-            .count();
-
-        // Pending appointments
-        int pendingAppointments = (int) allAppointments.stream()
-            .filter(a -> a.getStatus() == EAppointmentStatus.PENDING)
-            .count();
-
-        // Confirmed appointments
-        int confirmedAppointments = (int) allAppointments.stream()
-            .filter(a -> a.getStatus() == EAppointmentStatus.CONFIRMED)
-            .count();
-
-        // Completed this week
-        int completedThisWeek = (int) allAppointments.stream()
-            .filter(a -> a.getStatus() == EAppointmentStatus.COMPLETED)
-            .filter(a -> a.getCompletedAt() != null && 
-                !a.getCompletedAt().isBefore(weekStartTime) && 
-                a.getCompletedAt().isBefore(weekEndTime))
-            .count();
-
-        // Weekly revenue (from completed appointments)
-        BigDecimal weeklyRevenue = allAppointments.stream()
-            .filter(a -> a.getStatus() == EAppointmentStatus.COMPLETED)
-            .filter(a -> a.getCompletedAt() != null && 
-                !a.getCompletedAt().isBefore(weekStartTime) && 
-                a.getCompletedAt().isBefore(weekEndTime))
-            .map(a -> a.getTreatment().getPrice())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Total customers
-        List<User> allUsers = userRepository.findAll(0, Integer.MAX_VALUE);
-        int totalCustomers = allUsers.size();
-
-        // New customers this month
-        int newCustomersThisMonth = (int) allUsers.stream()
-            .filter(u -> u.getCreatedAt() != null && !u.getCreatedAt().isBefore(monthStartTime))
-            .count();
+        AppointmentRepository.DashboardCounters counters = appointmentRepository.aggregateDashboardCounters(
+            todayStart, todayEnd, weekStartTime, weekEndTime, monthStartTime);
 
         // Upcoming appointments (next 5)
-        List<AppointmentResponse> upcomingAppointments = allAppointments.stream()
-            .filter(a -> a.getScheduledAt().isAfter(LocalDateTime.now()))
-            .filter(a -> a.getStatus() == EAppointmentStatus.PENDING || a.getStatus() == EAppointmentStatus.CONFIRMED)
-            .sorted(Comparator.comparing(Appointment::getScheduledAt))
-            .limit(5)
+        List<AppointmentResponse> upcomingAppointments = appointmentRepository
+            .findUpcoming(LocalDateTime.now(), ACTIVE_STATUSES, UPCOMING_LIMIT)
+            .stream()
             .map(this::toAppointmentResponse)
             .toList();
 
         return new DashboardMetricsResponse(
-            todayAppointments,
-            pendingAppointments,
-            confirmedAppointments,
-            completedThisWeek,
-            weeklyRevenue,
-            totalCustomers,
-            newCustomersThisMonth,
+            counters.todayAppointments(),
+            counters.pendingAppointments(),
+            counters.confirmedAppointments(),
+            counters.completedThisWeek(),
+            counters.weeklyRevenue(),
+            counters.totalCustomers(),
+            counters.newCustomersThisMonth(),
             upcomingAppointments
         );
     }
@@ -115,12 +83,7 @@ public class AdminService {
         LocalDateTime todayStart = today.atStartOfDay();
         LocalDateTime todayEnd = today.plusDays(1).atStartOfDay();
         
-        Set<EAppointmentStatus> activeStatuses = Set.of(
-            EAppointmentStatus.PENDING, 
-            EAppointmentStatus.CONFIRMED
-        );
-
-        return appointmentRepository.findByScheduledAtBetweenAndStatusIn(todayStart, todayEnd, activeStatuses)
+        return appointmentRepository.findByScheduledAtBetweenAndStatusIn(todayStart, todayEnd, ACTIVE_STATUSES)
             .stream()
             .sorted(Comparator.comparing(Appointment::getScheduledAt))
             .map(this::toAppointmentResponse)
@@ -129,35 +92,77 @@ public class AdminService {
 
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getAppointmentsByDateRange(LocalDate from, LocalDate to, EAppointmentStatus status) {
-        LocalDateTime fromTime = from.atStartOfDay();
-        LocalDateTime toTime = to.plusDays(1).atStartOfDay();
-        
-        List<Appointment> appointments = appointmentRepository.findAll(0, Integer.MAX_VALUE);
-        
-        return appointments.stream()
-            .filter(a -> !a.getScheduledAt().isBefore(fromTime) && a.getScheduledAt().isBefore(toTime))
-            .filter(a -> status == null || a.getStatus() == status)
-            .sorted(Comparator.comparing(Appointment::getScheduledAt))
-            .map(this::toAppointmentResponse)
-            .toList();
+        List<AppointmentResponse> appointments = new ArrayList<>();
+        streamAppointmentsByDateRange(from, to, status, appointments::add);
+        return appointments;
     }
 
+    /**
+     * Returns one page of the appointments in [from, to], ordered by start time and id.
+     *
+     * @param cursor {@link AppointmentPageResponse#nextCursor()} of the previous page, or {@code null} for the first page
+     */
     @Transactional(readOnly = true)
-    public List<CustomerSummary> getCustomers(String search) {
-        List<User> users = userRepository.findAll(0, Integer.MAX_VALUE);
-        
-        if (search != null && !search.isBlank()) {
-            String searchLower = search.toLowerCase();
-            users = users.stream()
-                .filter(u -> 
-                    (u.getFirstName() != null && u.getFirstName().toLowerCase().contains(searchLower)) ||
-                    (u.getLastName() != null && u.getLastName().toLowerCase().contains(searchLower)) ||
-                    (u.getEmail() != null && u.getEmail().toLowerCase().contains(searchLower)))
-                .toList();
+    public AppointmentPageResponse getAppointmentPage(LocalDate from, LocalDate to, EAppointmentStatus status,
+                                                      String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        PageCursor after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : new PageCursor(null, null);
+
+        // Fetch one extra row to know whether another page follows
+        List<Appointment> rows = appointmentRepository.findPageByScheduledAtRange(
+            from.atStartOfDay(), to.plusDays(1).atStartOfDay(), status, after.scheduledAt(), after.id(), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Appointment> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = hasMore ? encodeCursor(page.getLast()) : null;
+        return new AppointmentPageResponse(page.stream().map(this::toAppointmentResponse).toList(), nextCursor);
+    }
+
+    /**
+     * Streams the appointments in [from, to] to {@code sink} in start time order without materializing the range.
+     */
+    public void streamAppointmentsByDateRange(LocalDate from, LocalDate to, EAppointmentStatus status,
+                                              Consumer<AppointmentResponse> sink) {
+        appointmentRepository.streamByScheduledAtRange(
+            from.atStartOfDay(), to.plusDays(1).atStartOfDay(), status,
+            appointment -> sink.accept(toAppointmentResponse(appointment)));
+    }
+
+    private static String encodeCursor(Appointment appointment) {
+        String raw = appointment.getScheduledAt() + CURSOR_SEPARATOR + appointment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            return new PageCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
         }
+    }
+
+    private record PageCursor(LocalDateTime scheduledAt, Long id) {
+    }
 
-        return users.stream()
-            .map(this::toCustomerSummary)
+    @Transactional(readOnly = true)
+    public List<CustomerSummary> getCustomers(String search) {
+        return userRepository.findCustomerStats(search).stream()
+            .map(stats -> new CustomerSummary(
+                stats.id(),
+                buildFullName(stats.firstName(), stats.lastName()),
+                stats.email(),
+                stats.phone(),
+                stats.totalAppointments(),
+                stats.completedAppointments(),
+                stats.lastVisit(),
+                stats.unredeemedStamps()))
             .sorted(Comparator.comparing(CustomerSummary::name, Comparator.nullsLast(String::compareToIgnoreCase)))
             .toList();
     }
@@ -207,36 +212,6 @@ public class AdminService {
         );
     }
 
-    private CustomerSummary toCustomerSummary(User user) {
-        List<Appointment> appointments = appointmentRepository.findByCustomerIdOrderByScheduledAtDesc(user.getId());
-        
-        int totalAppointments = appointments.size();
-        int completedAppointments = (int) appointments.stream()
-            .filter(a -> a.getStatus() == EAppointmentStatus.COMPLETED)
-            .count();
-        
-        LocalDateTime lastVisit = appointments.stream()
-            .filter(a -> a.getStatus() == EAppointmentStatus.COMPLETED)
-            .map(Appointment::getCompletedAt)
-            .filter(java.util.Objects::nonNull)
-            .max(LocalDateTime::compareTo)
-            .orElse(null);
-
-        int loyaltyStamps = loyaltyService.getLoyaltyStatus(user.getId()).currentStamps();
-        String fullName = buildFullName(user.getFirstName(), user.getLastName());
-
-        return new CustomerSummary(
-            user.getId(),
-            fullName,
-            user.getEmail(),
-            user.getPhone(),
-            totalAppointments,
-            completedAppointments,
-            lastVisit,
-            loyaltyStamps
-        );
-    }
-
     private String buildFullName(String firstName, String lastName) {
         if (firstName == null && lastName == null) return null;
         if (firstName == null) return lastName;
@@ -11,15 +11,20 @@ import de.jexcellence.lmbeauty.dto.booking.AppointmentActionRequest;
 import de.jexcellence.lmbeauty.dto.booking.AppointmentResponse;
 import de.jexcellence.lmbeauty.dto.booking.BookAppointmentRequest;
 import de.jexcellence.lmbeauty.dto.booking.TreatmentHistoryResponse;
+import de.jexcellence.lmbeauty.exception.SlotNotAvailableException;
 import de.jexcellence.lmbeauty.type.EAppointmentStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
@@ -31,11 +36,23 @@ public class AppointmentService {
         EAppointmentStatus.CONFIRMED
     );
 
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private static final ReentrantLock[] DAY_LOCKS = new ReentrantLock[64];
+
+    static {
+        for (int i = 0; i < DAY_LOCKS.length; i++) {
+            DAY_LOCKS[i] = new ReentrantLock();
+        }
+    }
+
     private final AppointmentRepository appointmentRepository;
     private final TreatmentRepository treatmentRepository;
     private final UserRepository userRepository;
     private final TimeSlotService timeSlotService;
+    private final BlockingIntervalIndex blockingIntervalIndex;
     private final LoyaltyService loyaltyService;
+    private final RefillEligibilityIndex refillEligibilityIndex;
     private final BookingProperties bookingProperties;
 
     @Transactional
@@ -50,26 +67,53 @@ public class AppointmentService {
             throw new IllegalArgumentException("Treatment not found or inactive");
         }
 
-        // Validate slot is available
-        var slotsResponse = timeSlotService.getAvailableSlots(
-            request.treatmentId(), request.scheduledAt().toLocalDate());
-        boolean slotAvailable = slotsResponse.slots().stream()
-            .anyMatch(s -> s.startTime().equals(request.scheduledAt()) && s.available());
-
-        if (!slotAvailable) {
-            throw new IllegalStateException("Selected time slot is not available");
+        LocalDateTime scheduledAt = request.scheduledAt();
+        List<ReentrantLock> locks = dayLocks(scheduledAt, scheduledAt.plusMinutes(treatment.getDurationMinutes()));
+        locks.forEach(ReentrantLock::lock);
+        try {
+            // Validate slot is available; the day lock keeps concurrent bookings from passing this check together
+            if (!timeSlotService.isSlotAvailable(treatment, scheduledAt)) {
+                throw new SlotNotAvailableException("Selected time slot is not available");
+            }
+
+            Appointment appointment = new Appointment();
+            appointment.setCustomer(customer);
+            appointment.setTreatment(treatment);
+            appointment.setScheduledAt(scheduledAt);
+            appointment.setDurationMinutes(treatment.getDurationMinutes());
+            appointment.setStatus(EAppointmentStatus.PENDING);
+            appointment.setCustomerNotes(request.customerNotes());
+
+            Appointment saved;
+            try {
+                saved = appointmentRepository.create(appointment);
+            } catch (RuntimeException e) {
+                // Another instance booked an overlapping slot first, so our view of the day is stale
+                if (isOverlapViolation(e)) {
+                    blockingIntervalIndex.invalidate(scheduledAt, scheduledAt.plusMinutes(treatment.getDurationMinutes()));
+                    throw new SlotNotAvailableException("Selected time slot is not available");
+                }
+                throw e;
+            }
+            blockingIntervalIndex.onAppointmentStatusChange(saved, null);
+            return toAppointmentResponse(saved);
+        } finally {
+            locks.forEach(ReentrantLock::unlock);
         }
+    }
 
-        Appointment appointment = new Appointment();
-        appointment.setCustomer(customer);
-        appointment.setTreatment(treatment);
-        appointment.setScheduledAt(request.scheduledAt());
-        appointment.setDurationMinutes(treatment.getDurationMinutes());
-        appointment.setStatus(EAppointmentStatus.PENDING);
-        appointment.setCustomerNotes(request.customerNotes());
-
-        Appointment saved = appointmentRepository.create(appointment);
-        return toAppointmentResponse(saved);
+    /**
+     * Creates the exclusion constraint that keeps overlapping bookings out across instances.
+     * The day locks only cover this JVM, so the application does not start without it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureNoOverlapConstraint() {
+        try {
+            appointmentRepository.createNoOverlapConstraint();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(
+                "Could not create appointment overlap constraint " + AppointmentRepository.NO_OVERLAP_CONSTRAINT, e);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -113,20 +157,15 @@ public class AppointmentService {
             throw new IllegalStateException("Cancellation deadline has passed");
         }
 
+        EAppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(EAppointmentStatus.CANCELLED);
         appointment.setCancelledAt(LocalDateTime.now());
         appointmentRepository.update(appointment);
+        blockingIntervalIndex.onAppointmentStatusChange(appointment, previousStatus);
     }
 
     // Owner methods
 
-    @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAllAppointments() {
-        return appointmentRepository.findAll(0, Integer.MAX_VALUE).stream()
-            .map(this::toAppointmentResponse)
-            .toList();
-    }
-
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getPendingAppointments() {
         return appointmentRepository.findByStatusOrderByScheduledAtAsc(EAppointmentStatus.PENDING).stream()
@@ -144,7 +183,8 @@ public class AppointmentService {
     @Transactional
     public AppointmentResponse confirmAppointment(Long appointmentId, AppointmentActionRequest request) {
         Appointment appointment = getAppointmentOrThrow(appointmentId);
-        validateStatusTransition(appointment.getStatus(), EAppointmentStatus.CONFIRMED);
+        EAppointmentStatus previousStatus = appointment.getStatus();
+        validateStatusTransition(previousStatus, EAppointmentStatus.CONFIRMED);
 
         appointment.setStatus(EAppointmentStatus.CONFIRMED);
         appointment.setConfirmedAt(LocalDateTime.now());
@@ -152,13 +192,16 @@ public class AppointmentService {
             appointment.setOwnerNotes(request.ownerNotes());
         }
 
-        return toAppointmentResponse(appointmentRepository.update(appointment));
+        Appointment updated = appointmentRepository.update(appointment);
+        blockingIntervalIndex.onAppointmentStatusChange(updated, previousStatus);
+        return toAppointmentResponse(updated);
     }
 
     @Transactional
     public AppointmentResponse rejectAppointment(Long appointmentId, AppointmentActionRequest request) {
         Appointment appointment = getAppointmentOrThrow(appointmentId);
-        validateStatusTransition(appointment.getStatus(), EAppointmentStatus.REJECTED);
+        EAppointmentStatus previousStatus = appointment.getStatus();
+        validateStatusTransition(previousStatus, EAppointmentStatus.REJECTED);
 
         appointment.setStatus(EAppointmentStatus.REJECTED);
         if (request != null) {
@@ -166,13 +209,16 @@ public class AppointmentService {
             appointment.setOwnerNotes(request.ownerNotes());
         }
 
-        return toAppointmentResponse(appointmentRepository.update(appointment));
+        Appointment updated = appointmentRepository.update(appointment);
+        blockingIntervalIndex.onAppointmentStatusChange(updated, previousStatus);
+        return toAppointmentResponse(updated);
     }
 
     @Transactional
     public AppointmentResponse completeAppointment(Long appointmentId, AppointmentActionRequest request) {
         Appointment appointment = getAppointmentOrThrow(appointmentId);
-        validateStatusTransition(appointment.getStatus(), EAppointmentStatus.COMPLETED);
+        EAppointmentStatus previousStatus = appointment.getStatus();
+        validateStatusTransition(previousStatus, EAppointmentStatus.COMPLETED);
 
         appointment.setStatus(EAppointmentStatus.COMPLETED);
         appointment.setCompletedAt(LocalDateTime.now());
@@ -181,6 +227,8 @@ public class AppointmentService {
         }
 
         Appointment updated = appointmentRepository.update(appointment);
+        blockingIntervalIndex.onAppointmentStatusChange(updated, previousStatus);
+        refillEligibilityIndex.onAppointmentCompleted(updated);
 
         // Automatically add loyalty stamp on completion
         try {
@@ -196,14 +244,41 @@ public class AppointmentService {
     @Transactional
     public AppointmentResponse markNoShow(Long appointmentId, AppointmentActionRequest request) {
         Appointment appointment = getAppointmentOrThrow(appointmentId);
-        validateStatusTransition(appointment.getStatus(), EAppointmentStatus.NO_SHOW);
+        EAppointmentStatus previousStatus = appointment.getStatus();
+        validateStatusTransition(previousStatus, EAppointmentStatus.NO_SHOW);
 
         appointment.setStatus(EAppointmentStatus.NO_SHOW);
         if (request != null && request.ownerNotes() != null) {
             appointment.setOwnerNotes(request.ownerNotes());
         }
 
-        return toAppointmentResponse(appointmentRepository.update(appointment));
+        Appointment updated = appointmentRepository.update(appointment);
+        blockingIntervalIndex.onAppointmentStatusChange(updated, previousStatus);
+        return toAppointmentResponse(updated);
+    }
+
+    /**
+     * Returns the lock stripes of every day touched by [start, end) in a stable order.
+     */
+    private static List<ReentrantLock> dayLocks(LocalDateTime start, LocalDateTime end) {
+        return start.toLocalDate().datesUntil(end.minusNanos(1).toLocalDate().plusDays(1))
+            .mapToInt(date -> Math.floorMod(date.hashCode(), DAY_LOCKS.length))
+            .distinct()
+            .sorted()
+            .mapToObj(stripe -> DAY_LOCKS[stripe])
+            .toList();
+    }
+
+    private static boolean isOverlapViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                    && sqlException.getServerErrorMessage() != null
+                    && AppointmentRepository.NO_OVERLAP_CONSTRAINT.equals(sqlException.getServerErrorMessage().getConstraint())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private Appointment getAppointmentOrThrow(Long id) {
@@ -146,6 +146,7 @@ public class AuthService {
     public void logout(RefreshTokenRequest request) {
         try {
             RefreshToken token = refreshTokenService.findByToken(request.getRefreshToken());
+            jwtService.revokeTokens(token.getUser().getId());
             refreshTokenService.deleteByUserId(token.getUser().getId());
         } catch (Exception e) {
             log.warn("Logout warning (non-fatal): {}", e.getMessage());
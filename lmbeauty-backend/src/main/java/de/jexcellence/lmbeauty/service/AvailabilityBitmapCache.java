@@ -0,0 +1,151 @@
+package de.jexcellence.lmbeauty.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed free-minute bitmaps for the booking calendar.
+ * <p>
+ * One bit per minute of the day marks whether the minute is free of blocked periods and
+ * PENDING/CONFIRMED appointments. Whether an N-minute treatment can start at a minute is then
+ * a handful of shift/AND operations over 23 words, answered exactly for any opening hours and
+ * blocking intervals, not only for ones aligned to the slot increment.
+ * <p>
+ * Opening hours come from {@link DayCalendarResolver} and blocking data from
+ * {@link BlockingIntervalIndex}. Both hand out immutable per-day snapshots, so a bitmap is
+ * rebuilt exactly when one of the snapshots it was derived from has been replaced.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityBitmapCache {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final DayCalendarResolver dayCalendarResolver;
+    private final BlockingIntervalIndex blockingIntervalIndex;
+
+    private final ConcurrentHashMap<LocalDate, DayBitmap> days = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the up-to-date bitmap for the given date.
+     */
+    public DayBitmap forDay(LocalDate date) {
+        DayCalendarResolver.DayCalendar calendar = dayCalendarResolver.resolve(date);
+        BlockingIntervalIndex.DayIntervals blocking = blockingIntervalIndex.forDay(date);
+        DayBitmap bitmap = days.get(date);
+        if (bitmap != null && bitmap.isDerivedFrom(calendar, blocking)) {
+            return bitmap;
+        }
+
+        return days.compute(date, (d, existing) -> existing != null && existing.isDerivedFrom(calendar, blocking)
+            ? existing
+            : new DayBitmap(calendar, blocking));
+    }
+
+    /**
+     * Loads all inputs for [from, to] with one query per source so that the following
+     * {@link #forDay(LocalDate)} calls are served from memory.
+     */
+    public void preloadRange(LocalDate from, LocalDate to) {
+        dayCalendarResolver.preloadRange(from, to);
+        blockingIntervalIndex.preloadRange(from, to);
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    /**
+     * Immutable opening hours and free-minute bitmap of one day.
+     */
+    public static final class DayBitmap {
+
+        private final LocalDate date;
+        private final long[] free;
+        private final DayCalendarResolver.DayCalendar calendar;
+        private final BlockingIntervalIndex.DayIntervals blocking;
+
+        DayBitmap(DayCalendarResolver.DayCalendar calendar, BlockingIntervalIndex.DayIntervals blocking) {
+            this.date = calendar.date();
+            this.calendar = calendar;
+            this.blocking = blocking;
+
+            int dayStartMinute = BlockingIntervalIndex.toEpochMinute(date.atStartOfDay());
+
+            // Minutes past the end of the day stay cleared, so no run reaches into the next day
+            this.free = new long[Math.ceilDiv(MINUTES_PER_DAY, 64)];
+            Arrays.fill(free, -1L);
+            free[free.length - 1] = -1L >>> (free.length * 64 - MINUTES_PER_DAY);
+            for (int i = 0; i < blocking.size(); i++) {
+                int from = Math.max(0, blocking.start(i) - dayStartMinute);
+                int to = Math.min(MINUTES_PER_DAY, blocking.end(i) - dayStartMinute);
+                for (int minute = from; minute < to; minute++) {
+                    free[minute >>> 6] &= ~(1L << minute);
+                }
+            }
+        }
+
+        boolean isDerivedFrom(DayCalendarResolver.DayCalendar calendar, BlockingIntervalIndex.DayIntervals blocking) {
+            return this.calendar == calendar && this.blocking == blocking;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * Opening windows of the day before blocked periods are applied.
+         */
+        public List<DayCalendarResolver.OpenWindow> getOpeningHours() {
+            return calendar.openingHours();
+        }
+
+        /**
+         * Minutes of the day at which a run of {@code length} consecutive free minutes starts.
+         */
+        public long[] freeRunStarts(int length) {
+            return runStarts(free, length);
+        }
+
+        /**
+         * Returns whether bit {@code index} is set in a bitmap returned by {@link #freeRunStarts(int)}.
+         */
+        public static boolean isSet(long[] bits, int index) {
+            return index >= 0 && index < bits.length << 6 && (bits[index >>> 6] & (1L << index)) != 0;
+        }
+
+        static long[] runStarts(long[] cells, int length) {
+            long[] result = cells.clone();
+            // Bit i of result is set iff the covered bits from i on are all set; each step at most doubles that
+            int covered = 1;
+            while (covered < length) {
+                int shift = Math.min(covered, length - covered);
+                for (int i = 0; i < result.length; i++) {
+                    // Only reads words at or after i, which this step has not changed yet
+                    result[i] &= shiftedWord(result, i, shift);
+                }
+                covered += shift;
+            }
+            return result;
+        }
+
+        /**
+         * Word {@code index} of {@code cells} shifted right by {@code shift} bits across word boundaries.
+         */
+        private static long shiftedWord(long[] cells, int index, int shift) {
+            int word = index + (shift >>> 6);
+            int bit = shift & 63;
+            long low = word < cells.length ? cells[word] >>> bit : 0L;
+            long high = bit != 0 && word + 1 < cells.length ? cells[word + 1] << (64 - bit) : 0L;
+            return low | high;
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class AvailabilityService {
     private final WeeklyAvailabilityRepository weeklyAvailabilityRepository;
     private final SpecificDateAvailabilityRepository specificDateAvailabilityRepository;
     private final BlockedPeriodRepository blockedPeriodRepository;
+    private final BlockingIntervalIndex blockingIntervalIndex;
+    private final DayCalendarResolver dayCalendarResolver;
 
     // Weekly Availability Methods
 
@@ -53,7 +55,9 @@ public class AvailabilityService {
         availability.setEndTime(request.endTime());
         availability.setActive(request.active() != null ? request.active() : true);
 
-        return weeklyAvailabilityRepository.create(availability);
+        WeeklyAvailability saved = weeklyAvailabilityRepository.create(availability);
+        dayCalendarResolver.invalidateAll();
+        return saved;
     }
 
     @Transactional
@@ -76,7 +80,7 @@ public class AvailabilityService {
         }
 
         // Create new availability slots
-        return requests.stream()
+        List<WeeklyAvailability> created = requests.stream()
             .map(request -> {
                 WeeklyAvailability availability = new WeeklyAvailability();
                 availability.setDayOfWeek(dayOfWeek);
@@ -86,6 +90,8 @@ public class AvailabilityService {
                 return weeklyAvailabilityRepository.create(availability);
             })
             .toList();
+        dayCalendarResolver.invalidateAll();
+        return created;
     }
 
     @Transactional
@@ -106,7 +112,9 @@ public class AvailabilityService {
         availability.setEndTime(endTime);
         if (request.active() != null) availability.setActive(request.active());
 
-        return weeklyAvailabilityRepository.update(availability);
+        WeeklyAvailability updated = weeklyAvailabilityRepository.update(availability);
+        dayCalendarResolver.invalidateAll();
+        return updated;
     }
 
     @Transactional
@@ -116,6 +124,7 @@ public class AvailabilityService {
             throw new IllegalArgumentException("Weekly availability not found with ID: " + id);
         }
         weeklyAvailabilityRepository.delete(id);
+        dayCalendarResolver.invalidateAll();
     }
 
     private void validateNoOverlap(DayOfWeek dayOfWeek, java.time.LocalTime startTime, 
@@ -148,7 +157,10 @@ public class AvailabilityService {
         blockedPeriod.setEndDateTime(request.endDateTime());
         blockedPeriod.setReason(request.reason());
 
-        return blockedPeriodRepository.create(blockedPeriod);
+        BlockedPeriod saved = blockedPeriodRepository.create(blockedPeriod);
+        blockingIntervalIndex.onBlockedPeriodCreated(saved);
+        dayCalendarResolver.invalidate(saved.getStartDateTime(), saved.getEndDateTime());
+        return saved;
     }
 
     @Transactional
@@ -158,6 +170,23 @@ public class AvailabilityService {
             throw new IllegalArgumentException("Blocked period not found with ID: " + id);
         }
         blockedPeriodRepository.delete(id);
+        blockingIntervalIndex.onBlockedPeriodDeleted(blockedPeriod);
+        dayCalendarResolver.invalidate(blockedPeriod.getStartDateTime(), blockedPeriod.getEndDateTime());
+    }
+
+    // Resolved Calendar Methods
+
+    @Transactional(readOnly = true)
+    public DayCalendarResolver.DayCalendar getDayCalendar(LocalDate date) {
+        return dayCalendarResolver.resolve(date);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DayCalendarResolver.DayCalendar> getDayCalendars(LocalDate from, LocalDate to) {
+        dayCalendarResolver.preloadRange(from, to);
+        return from.datesUntil(to.plusDays(1))
+            .map(dayCalendarResolver::resolve)
+            .toList();
     }
 
     // Specific Date Availability Methods
@@ -192,7 +221,7 @@ public class AvailabilityService {
         }
 
         // Create new availability slots
-        return requests.stream()
+        List<SpecificDateAvailability> created = requests.stream()
             .map(request -> {
                 SpecificDateAvailability availability = new SpecificDateAvailability();
                 availability.setDate(date);
@@ -203,6 +232,8 @@ public class AvailabilityService {
                 return specificDateAvailabilityRepository.create(availability);
             })
             .toList();
+        dayCalendarResolver.invalidate(date);
+        return created;
     }
 
     @Transactional
@@ -216,7 +247,9 @@ public class AvailabilityService {
         availability.setActive(request.active() != null ? request.active() : true);
         availability.setReason(request.reason());
 
-        return specificDateAvailabilityRepository.create(availability);
+        SpecificDateAvailability saved = specificDateAvailabilityRepository.create(availability);
+        dayCalendarResolver.invalidate(saved.getDate());
+        return saved;
     }
 
     @Transactional
@@ -232,13 +265,17 @@ public class AvailabilityService {
 
         validateNoOverlapForDate(date, startTime, endTime, id);
 
+        LocalDate previousDate = availability.getDate();
         availability.setDate(date);
         availability.setStartTime(startTime);
         availability.setEndTime(endTime);
         if (request.active() != null) availability.setActive(request.active());
         if (request.reason() != null) availability.setReason(request.reason());
 
-        return specificDateAvailabilityRepository.update(availability);
+        SpecificDateAvailability updated = specificDateAvailabilityRepository.update(availability);
+        dayCalendarResolver.invalidate(previousDate);
+        dayCalendarResolver.invalidate(date);
+        return updated;
     }
 
     @Transactional
@@ -248,6 +285,7 @@ public class AvailabilityService {
             throw new IllegalArgumentException("Specific date availability not found with ID: " + id);
         }
         specificDateAvailabilityRepository.delete(id);
+        dayCalendarResolver.invalidate(availability.getDate());
     }
 
     private void validateNoOverlapForDate(LocalDate date, java.time.LocalTime startTime, 
@@ -0,0 +1,296 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.config.BookingProperties;
+import de.jexcellence.lmbeauty.database.entity.Appointment;
+import de.jexcellence.lmbeauty.database.entity.BlockedPeriod;
+import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
+import de.jexcellence.lmbeauty.database.repository.BlockedPeriodRepository;
+import de.jexcellence.lmbeauty.type.EAppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of everything that blocks a booking: blocked periods and
+ * PENDING/CONFIRMED appointments, bucketed per calendar day.
+ * <p>
+ * Intervals are kept as epoch minutes in sorted primitive arrays, so an overlap
+ * check is a single binary search. Days are loaded lazily from the database and
+ * afterwards maintained incrementally by {@link AppointmentService} and
+ * {@link AvailabilityService}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlockingIntervalIndex {
+
+    private static final Set<EAppointmentStatus> BLOCKING_STATUSES = Set.of(
+        EAppointmentStatus.PENDING,
+        EAppointmentStatus.CONFIRMED
+    );
+
+    private final AppointmentRepository appointmentRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+    private final BookingProperties bookingProperties;
+
+    private final ConcurrentHashMap<LocalDate, DayIntervals> days = new ConcurrentHashMap<>();
+    // Bumped before every incremental change, so a preload can tell whether its snapshot missed one
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the blocking intervals touching the given date, loading them on first access.
+     */
+    public DayIntervals forDay(LocalDate date) {
+        return days.computeIfAbsent(date, this::loadDay);
+    }
+
+    /**
+     * Loads every day of [from, to] that is not indexed yet with one query per source,
+     * so a multi-day sweep does not hit the database once per day.
+     * <p>
+     * The range is loaded outside the map's per-key locks, so a change made meanwhile would not
+     * reach the loaded days. If the index changed during the load, the loaded days are dropped
+     * and {@link #forDay(LocalDate)} loads them one by one instead.
+     */
+    public void preloadRange(LocalDate from, LocalDate to) {
+        List<LocalDate> missing = from.datesUntil(to.plusDays(1))
+            .filter(date -> !days.containsKey(date))
+            .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long loadedAt = generation.get();
+        Map<LocalDate, DayIntervals> loaded = loadRange(missing.getFirst(), missing.getLast());
+        for (LocalDate date : missing) {
+            // Checked under the key's lock: a change either bumped the generation before, or finds the day installed
+            days.computeIfAbsent(date, d -> generation.get() == loadedAt ? loaded.get(d) : null);
+        }
+    }
+
+    /**
+     * Updates the index after an appointment was created or changed status.
+     *
+     * @param previousStatus status before the change, or {@code null} for a new appointment
+     */
+    public void onAppointmentStatusChange(Appointment appointment, EAppointmentStatus previousStatus) {
+        boolean wasBlocking = previousStatus != null && BLOCKING_STATUSES.contains(previousStatus);
+        boolean isBlocking = BLOCKING_STATUSES.contains(appointment.getStatus());
+        if (wasBlocking == isBlocking) {
+            return;
+        }
+
+        LocalDateTime start = appointment.getScheduledAt();
+        LocalDateTime end = start.plusMinutes(appointment.getDurationMinutes());
+        if (isBlocking) {
+            add(start, end);
+        } else {
+            remove(start, end);
+        }
+    }
+
+    public void onBlockedPeriodCreated(BlockedPeriod blockedPeriod) {
+        add(blockedPeriod.getStartDateTime(), blockedPeriod.getEndDateTime());
+    }
+
+    public void onBlockedPeriodDeleted(BlockedPeriod blockedPeriod) {
+        remove(blockedPeriod.getStartDateTime(), blockedPeriod.getEndDateTime());
+    }
+
+    /**
+     * Drops every day touched by [start, end) so it is reloaded from the database on next access.
+     */
+    public void invalidate(LocalDateTime start, LocalDateTime end) {
+        generation.incrementAndGet();
+        for (LocalDate date : coveredDates(start, end)) {
+            days.remove(date);
+        }
+    }
+
+    /**
+     * Drops days that can no longer be booked.
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    public static int toEpochMinute(LocalDateTime dateTime) {
+        return (int) (dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    private void add(LocalDateTime start, LocalDateTime end) {
+        int startMinute = toEpochMinute(start);
+        int endMinute = toEpochMinute(end);
+        generation.incrementAndGet();
+        for (LocalDate date : coveredDates(start, end)) {
+            days.computeIfPresent(date, (d, intervals) -> intervals.with(startMinute, endMinute));
+        }
+    }
+
+    private void remove(LocalDateTime start, LocalDateTime end) {
+        int startMinute = toEpochMinute(start);
+        int endMinute = toEpochMinute(end);
+        generation.incrementAndGet();
+        for (LocalDate date : coveredDates(start, end)) {
+            days.computeIfPresent(date, (d, intervals) -> intervals.without(startMinute, endMinute));
+        }
+    }
+
+    private DayIntervals loadDay(LocalDate date) {
+        return loadRange(date, date).get(date);
+    }
+
+    private Map<LocalDate, DayIntervals> loadRange(LocalDate first, LocalDate last) {
+        LocalDateTime rangeStart = first.atStartOfDay();
+        LocalDateTime rangeEnd = last.plusDays(1).atStartOfDay();
+
+        List<BlockedPeriod> blockedPeriods = blockedPeriodRepository.findOverlapping(rangeStart, rangeEnd);
+        // Appointments starting late on the previous day may run past midnight
+        List<Appointment> appointments = appointmentRepository.findByScheduledAtBetweenAndStatusIn(
+            rangeStart.minusMinutes(bookingProperties.getMaxTreatmentDuration()), rangeEnd, BLOCKING_STATUSES);
+
+        Map<LocalDate, List<int[]>> buckets = new HashMap<>();
+        for (BlockedPeriod bp : blockedPeriods) {
+            addToBuckets(buckets, bp.getStartDateTime(), bp.getEndDateTime(), first, last);
+        }
+        for (Appointment apt : appointments) {
+            LocalDateTime start = apt.getScheduledAt();
+            addToBuckets(buckets, start, start.plusMinutes(apt.getDurationMinutes()), first, last);
+        }
+
+        Map<LocalDate, DayIntervals> result = new HashMap<>();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            List<int[]> bucket = buckets.getOrDefault(date, List.of());
+            result.put(date, DayIntervals.of(bucket.toArray(int[][]::new)));
+        }
+        return result;
+    }
+
+    private static void addToBuckets(Map<LocalDate, List<int[]>> buckets, LocalDateTime start, LocalDateTime end,
+                                     LocalDate first, LocalDate last) {
+        int[] interval = {toEpochMinute(start), toEpochMinute(end)};
+        LocalDate from = start.toLocalDate().isBefore(first) ? first : start.toLocalDate();
+        LocalDate to = end.minusMinutes(1).toLocalDate().isAfter(last) ? last : end.minusMinutes(1).toLocalDate();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            buckets.computeIfAbsent(date, d -> new ArrayList<>()).add(interval);
+        }
+    }
+
+    private static List<LocalDate> coveredDates(LocalDateTime start, LocalDateTime end) {
+        LocalDate first = start.toLocalDate();
+        LocalDate last = end.minusMinutes(1).toLocalDate();
+        return first.datesUntil(last.plusDays(1)).toList();
+    }
+
+    /**
+     * Immutable set of half-open [start, end) intervals in epoch minutes, sorted by start.
+     * {@code maxEnd[i]} holds the largest end among the first {@code i + 1} intervals, which
+     * lets {@link #overlaps(int, int)} answer with one binary search.
+     */
+    public static final class DayIntervals {
+
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnd;
+
+        private DayIntervals(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnd = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        static DayIntervals of(int[][] intervals) {
+            Arrays.sort(intervals, (a, b) -> Integer.compare(a[0], b[0]));
+            int[] starts = new int[intervals.length];
+            int[] ends = new int[intervals.length];
+            for (int i = 0; i < intervals.length; i++) {
+                starts[i] = intervals[i][0];
+                ends[i] = intervals[i][1];
+            }
+            return new DayIntervals(starts, ends);
+        }
+
+        /**
+         * Returns whether any interval overlaps the half-open range [start, end).
+         */
+        public boolean overlaps(int start, int end) {
+            int candidates = lowerBound(starts, end);
+            return candidates > 0 && maxEnd[candidates - 1] > start;
+        }
+
+        public int size() {
+            return starts.length;
+        }
+
+        public int start(int index) {
+            return starts[index];
+        }
+
+        public int end(int index) {
+            return ends[index];
+        }
+
+        DayIntervals with(int start, int end) {
+            int index = lowerBound(starts, start);
+            int[] newStarts = new int[starts.length + 1];
+            int[] newEnds = new int[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, index);
+            System.arraycopy(ends, 0, newEnds, 0, index);
+            newStarts[index] = start;
+            newEnds[index] = end;
+            System.arraycopy(starts, index, newStarts, index + 1, starts.length - index);
+            System.arraycopy(ends, index, newEnds, index + 1, ends.length - index);
+            return new DayIntervals(newStarts, newEnds);
+        }
+
+        DayIntervals without(int start, int end) {
+            for (int i = lowerBound(starts, start); i < starts.length && starts[i] == start; i++) {
+                if (ends[i] == end) {
+                    int[] newStarts = new int[starts.length - 1];
+                    int[] newEnds = new int[ends.length - 1];
+                    System.arraycopy(starts, 0, newStarts, 0, i);
+                    System.arraycopy(ends, 0, newEnds, 0, i);
+                    System.arraycopy(starts, i + 1, newStarts, i, starts.length - i - 1);
+                    System.arraycopy(ends, i + 1, newEnds, i, ends.length - i - 1);
+                    return new DayIntervals(newStarts, newEnds);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Number of elements strictly less than {@code key}.
+         */
+        private static int lowerBound(int[] values, int key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
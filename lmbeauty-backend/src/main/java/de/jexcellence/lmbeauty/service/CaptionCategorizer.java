@@ -0,0 +1,235 @@
+package de.jexcellence.lmbeauty.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Assigns Instagram captions to treatment categories by keyword.
+ * <p>
+ * The rules are ordered: a caption gets the first category that has one of its keywords in the
+ * caption. All keywords are compiled into a single Aho-Corasick automaton with precomputed
+ * transitions, so a caption is classified in one pass over its characters without building any
+ * intermediate strings. Hashtags are skipped, and brackets and whitespace runs are fed to the
+ * automaton as a single space while scanning.
+ */
+public final class CaptionCategorizer {
+
+    private static final String PREFIX = "instagram.categories";
+    private static final String DEFAULT_CATEGORY = "general";
+
+    private final List<String> categories;
+    private final String defaultCategory;
+    private final int[] symbols;
+    private final int[][] transitions;
+    private final long[] matches;
+
+    /**
+     * @param rules           keywords per category, in priority order
+     * @param defaultCategory category of captions without any keyword
+     */
+    public CaptionCategorizer(Map<String, List<String>> rules, String defaultCategory) {
+        if (rules.isEmpty() || rules.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + Long.SIZE + " categories are supported");
+        }
+        this.categories = List.copyOf(rules.keySet());
+        this.defaultCategory = defaultCategory;
+
+        List<List<String>> keywords = new ArrayList<>();
+        rules.forEach((category, categoryKeywords) -> {
+            List<String> normalized = categoryKeywords.stream()
+                .map(keyword -> keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+                .filter(keyword -> !keyword.isEmpty())
+                .toList();
+            if (normalized.isEmpty()) {
+                throw new IllegalArgumentException("Category " + category + " has no keywords");
+            }
+            keywords.add(normalized);
+        });
+
+        // Symbol 0 stands for every character that occurs in no keyword
+        int maxChar = keywords.stream().flatMap(List::stream)
+            .flatMapToInt(String::chars).max().orElse(0);
+        this.symbols = new int[maxChar + 1];
+        int alphabetSize = 1;
+        for (List<String> categoryKeywords : keywords) {
+            for (String keyword : categoryKeywords) {
+                for (char c : keyword.toCharArray()) {
+                    if (symbols[c] == 0) {
+                        symbols[c] = alphabetSize++;
+                    }
+                }
+            }
+        }
+
+        // Keyword trie, -1 marks a missing edge
+        List<int[]> trie = new ArrayList<>();
+        List<Long> output = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        output.add(0L);
+        for (int category = 0; category < keywords.size(); category++) {
+            for (String keyword : keywords.get(category)) {
+                int state = 0;
+                for (char c : keyword.toCharArray()) {
+                    int symbol = symbols[c];
+                    if (trie.get(state)[symbol] < 0) {
+                        trie.get(state)[symbol] = trie.size();
+                        trie.add(newRow(alphabetSize));
+                        output.add(0L);
+                    }
+                    state = trie.get(state)[symbol];
+                }
+                output.set(state, output.get(state) | 1L << category);
+            }
+        }
+
+        // Breadth-first, replace missing edges by the failure state's edge and inherit its matches
+        this.transitions = trie.toArray(int[][]::new);
+        this.matches = output.stream().mapToLong(Long::longValue).toArray();
+        int[] failure = new int[transitions.length];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int child = transitions[0][symbol];
+            if (child < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] |= matches[failure[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int child = transitions[state][symbol];
+                if (child < 0) {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                } else {
+                    failure[child] = transitions[failure[state]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the rules from a properties file on the classpath.
+     */
+    public static CaptionCategorizer fromClasspath(String resource) {
+        try (InputStream in = CaptionCategorizer.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Caption category rules not found: " + resource);
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read caption category rules: " + resource, e);
+        }
+    }
+
+    /**
+     * Reads {@code instagram.categories} (category order), {@code instagram.categories.<name>.keywords}
+     * and {@code instagram.categories.default}.
+     */
+    public static CaptionCategorizer fromProperties(Properties properties) {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        for (String category : split(properties.getProperty(PREFIX, ""))) {
+            String keywords = properties.getProperty(PREFIX + "." + category + ".keywords");
+            if (keywords == null) {
+                throw new IllegalArgumentException("No keywords configured for category " + category);
+            }
+            rules.put(category, split(keywords));
+        }
+        return new CaptionCategorizer(rules, properties.getProperty(PREFIX + ".default", DEFAULT_CATEGORY));
+    }
+
+    /**
+     * Returns the category of a caption.
+     */
+    public String categorize(String caption) {
+        if (caption == null) {
+            return defaultCategory;
+        }
+
+        long matched = 0;
+        int state = 0;
+        boolean emitted = false;
+        boolean pendingSpace = false;
+        int length = caption.length();
+        for (int i = 0; i < length; i++) {
+            char c = caption.charAt(i);
+            if (c == '#' && i + 1 < length && isWordChar(caption.charAt(i + 1))) {
+                // Hashtags never count as keywords
+                do {
+                    i++;
+                } while (i + 1 < length && isWordChar(caption.charAt(i + 1)));
+                continue;
+            }
+            if (isSeparator(c)) {
+                pendingSpace = emitted;
+                continue;
+            }
+            if (pendingSpace) {
+                state = transitions[state][symbol(' ')];
+                matched |= matches[state];
+                pendingSpace = false;
+            }
+            state = transitions[state][symbol(Character.toLowerCase(c))];
+            matched |= matches[state];
+            emitted = true;
+            if ((matched & 1L) != 0) {
+                // Nothing outranks the first category
+                break;
+            }
+        }
+        return matched == 0 ? defaultCategory : categories.get(Long.numberOfTrailingZeros(matched));
+    }
+
+    /**
+     * All categories in priority order, followed by the default category.
+     */
+    public List<String> categories() {
+        List<String> all = new ArrayList<>(categories);
+        if (!all.contains(defaultCategory)) {
+            all.add(defaultCategory);
+        }
+        return all;
+    }
+
+    private int symbol(char c) {
+        return c < symbols.length ? symbols[c] : 0;
+    }
+
+    private static int[] newRow(int alphabetSize) {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isSeparator(char c) {
+        return switch (c) {
+            case ' ', '\t', '\n', '\u000B', '\f', '\r', '(', ')', '[', ']', '{', '}' -> true;
+            default -> false;
+        };
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(item -> !item.isEmpty())
+            .toList();
+    }
+}
@@ -0,0 +1,231 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.database.entity.BlockedPeriod;
+import de.jexcellence.lmbeauty.database.entity.SpecificDateAvailability;
+import de.jexcellence.lmbeauty.database.entity.WeeklyAvailability;
+import de.jexcellence.lmbeauty.database.repository.BlockedPeriodRepository;
+import de.jexcellence.lmbeauty.database.repository.SpecificDateAvailabilityRepository;
+import de.jexcellence.lmbeauty.database.repository.WeeklyAvailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the effective opening hours of a date from the weekly template, date-specific
+ * overrides and blocked periods, and caches the result per date.
+ * <p>
+ * Active {@link SpecificDateAvailability} rows replace the weekly template for their date.
+ * The resolved windows are sorted and merged; {@link DayCalendar#openWindows()} additionally
+ * has every blocked period cut out. {@link AvailabilityService} invalidates affected dates
+ * on every write.
+ */
+@Component
+@RequiredArgsConstructor
+public class DayCalendarResolver {
+
+    private final WeeklyAvailabilityRepository weeklyAvailabilityRepository;
+    private final SpecificDateAvailabilityRepository specificDateAvailabilityRepository;
+    private final BlockedPeriodRepository blockedPeriodRepository;
+
+    private final ConcurrentHashMap<LocalDate, DayCalendar> calendars = new ConcurrentHashMap<>();
+    // Bumped before every invalidation, so a preload can tell whether its snapshot missed one
+    private final AtomicLong generation = new AtomicLong();
+
+    public DayCalendar resolve(LocalDate date) {
+        return calendars.computeIfAbsent(date, this::load);
+    }
+
+    /**
+     * Resolves every date of [from, to] that is not cached yet with one query per source.
+     * <p>
+     * The range is loaded outside the map's per-key locks. If anything was invalidated during the
+     * load, the loaded dates are dropped and {@link #resolve(LocalDate)} loads them one by one instead.
+     */
+    public void preloadRange(LocalDate from, LocalDate to) {
+        List<LocalDate> missing = from.datesUntil(to.plusDays(1))
+            .filter(date -> !calendars.containsKey(date))
+            .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        LocalDate first = missing.getFirst();
+        LocalDate last = missing.getLast();
+
+        long loadedAt = generation.get();
+        Map<DayOfWeek, List<WeeklyAvailability>> weeklyByDay = new EnumMap<>(DayOfWeek.class);
+        for (WeeklyAvailability availability : weeklyAvailabilityRepository.findByActiveTrue()) {
+            weeklyByDay.computeIfAbsent(availability.getDayOfWeek(), d -> new ArrayList<>()).add(availability);
+        }
+        Map<LocalDate, List<SpecificDateAvailability>> specificByDate = new HashMap<>();
+        for (SpecificDateAvailability availability : specificDateAvailabilityRepository.findByDateRange(first, last)) {
+            if (availability.isActive()) {
+                specificByDate.computeIfAbsent(availability.getDate(), d -> new ArrayList<>()).add(availability);
+            }
+        }
+        List<BlockedPeriod> blockedPeriods = blockedPeriodRepository.findOverlapping(
+            first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+
+        for (LocalDate date : missing) {
+            // Checked under the key's lock: an invalidation either bumped the generation before, or removes the date after
+            calendars.computeIfAbsent(date, d -> generation.get() != loadedAt ? null : build(
+                d,
+                weeklyByDay.getOrDefault(d.getDayOfWeek(), List.of()),
+                specificByDate.getOrDefault(d, List.of()),
+                blockedPeriods));
+        }
+    }
+
+    public void invalidate(LocalDate date) {
+        generation.incrementAndGet();
+        calendars.remove(date);
+    }
+
+    /**
+     * Drops every date touched by the given period, e.g. after a blocked period was created or deleted.
+     */
+    public void invalidate(LocalDateTime start, LocalDateTime end) {
+        LocalDate first = start.toLocalDate();
+        LocalDate last = end.minusNanos(1).toLocalDate();
+        generation.incrementAndGet();
+        // Removed per key rather than by iteration, which skips dates whose load is in flight
+        first.datesUntil(last.plusDays(1)).forEach(calendars::remove);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        calendars.clear();
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        calendars.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    private DayCalendar load(LocalDate date) {
+        return build(
+            date,
+            weeklyAvailabilityRepository.findByDayOfWeekAndActiveTrue(date.getDayOfWeek()),
+            specificDateAvailabilityRepository.findByDateAndActiveTrue(date),
+            blockedPeriodRepository.findOverlapping(date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+    }
+
+    static DayCalendar build(LocalDate date,
+                             List<WeeklyAvailability> weekly,
+                             List<SpecificDateAvailability> specific,
+                             List<BlockedPeriod> blockedPeriods) {
+        List<OpenWindow> windows = new ArrayList<>();
+        if (!specific.isEmpty()) {
+            for (SpecificDateAvailability availability : specific) {
+                windows.add(toWindow(date, availability.getStartTime(), availability.getEndTime()));
+            }
+        } else {
+            for (WeeklyAvailability availability : weekly) {
+                windows.add(toWindow(date, availability.getStartTime(), availability.getEndTime()));
+            }
+        }
+        List<OpenWindow> openingHours = merge(windows);
+
+        List<OpenWindow> blocked = new ArrayList<>();
+        for (BlockedPeriod bp : blockedPeriods) {
+            blocked.add(new OpenWindow(bp.getStartDateTime(), bp.getEndDateTime()));
+        }
+
+        return new DayCalendar(date, !specific.isEmpty(), openingHours, subtract(openingHours, merge(blocked)));
+    }
+
+    private static OpenWindow toWindow(LocalDate date, LocalTime start, LocalTime end) {
+        return new OpenWindow(date.atTime(start), date.atTime(end));
+    }
+
+    private static List<OpenWindow> merge(List<OpenWindow> windows) {
+        List<OpenWindow> sorted = new ArrayList<>(windows);
+        sorted.sort(Comparator.comparing(OpenWindow::start));
+
+        List<OpenWindow> merged = new ArrayList<>();
+        for (OpenWindow window : sorted) {
+            if (!merged.isEmpty() && !window.start().isAfter(merged.getLast().end())) {
+                OpenWindow previous = merged.removeLast();
+                LocalDateTime end = window.end().isAfter(previous.end()) ? window.end() : previous.end();
+                merged.add(new OpenWindow(previous.start(), end));
+            } else {
+                merged.add(window);
+            }
+        }
+        return List.copyOf(merged);
+    }
+
+    /**
+     * Cuts the sorted, merged {@code cuts} out of the sorted, merged {@code windows}.
+     */
+    private static List<OpenWindow> subtract(List<OpenWindow> windows, List<OpenWindow> cuts) {
+        List<OpenWindow> result = new ArrayList<>();
+        for (OpenWindow window : windows) {
+            LocalDateTime cursor = window.start();
+            for (OpenWindow cut : cuts) {
+                if (!cut.end().isAfter(cursor) || !cut.start().isBefore(window.end())) {
+                    continue;
+                }
+                if (cut.start().isAfter(cursor)) {
+                    result.add(new OpenWindow(cursor, cut.start()));
+                }
+                cursor = cut.end();
+                if (!cursor.isBefore(window.end())) {
+                    break;
+                }
+            }
+            if (cursor.isBefore(window.end())) {
+                result.add(new OpenWindow(cursor, window.end()));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    public record OpenWindow(LocalDateTime start, LocalDateTime end) {
+
+        public boolean contains(LocalDateTime from, LocalDateTime to) {
+            return !from.isBefore(start) && !to.isAfter(end);
+        }
+    }
+
+    /**
+     * Resolved calendar of one date.
+     *
+     * @param override     whether the opening hours come from date-specific availability
+     * @param openingHours merged opening windows before blocked periods are applied
+     * @param openWindows  opening windows with all blocked periods cut out
+     */
+    public record DayCalendar(
+        LocalDate date,
+        boolean override,
+        List<OpenWindow> openingHours,
+        List<OpenWindow> openWindows
+    ) {
+
+        /**
+         * Returns whether [start, end) lies completely inside one open window.
+         */
+        public boolean isOpen(LocalDateTime start, LocalDateTime end) {
+            for (OpenWindow window : openWindows) {
+                if (window.contains(start, end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -2,41 +2,89 @@ package de.jexcellence.lmbeauty.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.jexcellence.lmbeauty.database.entity.InstagramMedia;
+import de.jexcellence.lmbeauty.database.repository.InstagramMediaRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
  * Service for fetching Instagram posts and categorizing them for treatments.
+ * <p>
+ * Posts are served from an immutable {@link PostCache} snapshot that is replaced atomically.
+ * Fetching from the Graph API only ever happens on a background thread: a scheduled refresh keeps
+ * the snapshot warm, and a read that finds it expired starts at most one refresh while it keeps
+ * getting the stale snapshot.
+ * <p>
+ * Synced posts are stored as {@link InstagramMedia}, so a refresh only pages through the feed until it
+ * reaches a post that is already known. The whole feed is walked again only when stored media URLs
+ * are about to expire.
  */
 @Service
 public class InstagramService {
     
     private static final Logger logger = LoggerFactory.getLogger(InstagramService.class);
     
+    private static final long CACHE_TTL = 3600000; // 1 hour in milliseconds
+    private static final long REFRESH_INTERVAL = 2700000; // 45 minutes, so the scheduled refresh beats the TTL
+    private static final long RETRY_INTERVAL = 60000; // Minimum pause between attempts after a failed fetch
+    private static final int MAX_CONCURRENT_CHILD_FETCHES = 8;
+    // Instagram CDN URLs expire after a few days; stored URLs are renewed well before that
+    private static final Duration MEDIA_URL_TTL = Duration.ofHours(24);
+    // Carousel children are expanded inline so a page needs no extra request per carousel
+    private static final String MEDIA_FIELDS = "id,caption,media_type,media_url,thumbnail_url,permalink,timestamp,"
+        + "children%7Bmedia_type,media_url,thumbnail_url%7D";
+    private static final String CATEGORY_RULES = "instagram-categories.properties";
+    
     @Value("${instagram.access.token:}")
     private String accessToken;
     
+    @Value("${instagram.graph-url:https://graph.instagram.com}")
+    private String graphUrl;
+    
+    // Shared deadline of all carousel children fetches of one refresh
+    @Value("${instagram.children-fetch-timeout-ms:20000}")
+    private long childFetchTimeoutMillis = 20000;
+    
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final InstagramFallbackService fallbackService;
+    private final InstagramMediaRepository mediaRepository;
+    private final ExecutorService executorService;
+    private final CaptionCategorizer captionCategorizer = CaptionCategorizer.fromClasspath(CATEGORY_RULES);
     
-    // Cache for Instagram posts (1 hour TTL)
-    private Map<String, InstagramPost> cachedPosts = new HashMap<>();
-    private long lastFetchTime = 0;
-    private static final long CACHE_TTL = 3600000; // 1 hour in milliseconds
+    // Generation is seeded with the start time so it never repeats across restarts
+    private volatile PostCache cache = new PostCache(Map.of(), Map.of(), 0, System.currentTimeMillis());
+    private volatile long lastAttemptTime = 0;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
     
     @Autowired
-    public InstagramService(InstagramFallbackService fallbackService) {
-        this.restTemplate = new RestTemplate();
+    public InstagramService(InstagramFallbackService fallbackService, InstagramMediaRepository mediaRepository,
+                            ExecutorService executorService, RestTemplate restTemplate) {
+        // Shared client from HttpClientConfig, bounded by connect/read timeouts and a per-host limit
+        this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
         this.fallbackService = fallbackService;
+        this.mediaRepository = mediaRepository;
+        this.executorService = executorService;
     }
     
     /**
@@ -47,7 +95,7 @@ public class InstagramService {
             return Optional.empty();
         }
         
-        Map<String, InstagramPost> posts = getCachedPosts();
+        Map<String, InstagramPost> posts = currentPosts().firstByCategory();
         
         // Try to find a post that matches the treatment
         InstagramPost matchingPost = posts.get(treatmentSlug.toLowerCase());
@@ -72,37 +120,16 @@ public class InstagramService {
      * Get all Instagram posts categorized by treatment type - returns ALL posts per category.
      */
     public Map<String, List<InstagramPost>> getCategorizedPosts() {
-        // Try to get real Instagram posts first
+        // Served from the same cache as the per-treatment images
         try {
-            List<InstagramPost> allPosts = fetchInstagramPosts();
+            Map<String, List<InstagramPost>> categorized = currentPosts().byCategory();
             
-            if (allPosts.isEmpty()) {
+            if (categorized.values().stream().allMatch(List::isEmpty)) {
                 logger.warn("No Instagram posts available, using fallback posts");
                 return fallbackService.getFallbackCategorizedPosts();
             }
             
-            Map<String, List<InstagramPost>> fullCategorization = new HashMap<>();
-            
-            // Initialize categories
-            fullCategorization.put("einzeltechnik", new ArrayList<>());
-            fullCategorization.put("hybridtechnik", new ArrayList<>());
-            fullCategorization.put("volumentechnik", new ArrayList<>());
-            fullCategorization.put("augenbrauen", new ArrayList<>());
-            fullCategorization.put("lifting", new ArrayList<>());
-            fullCategorization.put("general", new ArrayList<>());
-            
-            for (InstagramPost post : allPosts) {
-                String category = categorizePost(post);
-                if (category != null) {
-                    fullCategorization.get(category).add(post);
-                }
-            }
-            
-            logger.info("Categorized {} posts into {} categories", allPosts.size(), fullCategorization.size());
-            fullCategorization.forEach((cat, postList) -> 
-                logger.info("Category '{}': {} posts", cat, postList.size()));
-            
-            return fullCategorization;
+            return categorized;
         } catch (Exception e) {
             logger.error("Error getting categorized posts, using fallback", e);
             return fallbackService.getFallbackCategorizedPosts();
@@ -110,53 +137,180 @@ public class InstagramService {
     }
     
     /**
-     * Fetch fresh Instagram posts from API.
+     * Generation of the cached posts, changes whenever the cache content is replaced.
      */
-    public void refreshPosts() {
-        cachedPosts.clear();
-        lastFetchTime = 0;
-        getCachedPosts(); // This will trigger a fresh fetch
+    public long getCacheGeneration() {
+        return cache.generation();
     }
     
-    private Map<String, InstagramPost> getCachedPosts() {
-        long currentTime = System.currentTimeMillis();
+    private Map<String, List<InstagramPost>> categorizeAllPosts(List<InstagramMedia> allMedia) {
+        Map<String, List<InstagramPost>> fullCategorization = new HashMap<>();
+        
+        // Initialize categories
+        captionCategorizer.categories().forEach(category -> fullCategorization.put(category, new ArrayList<>()));
         
-        // Check if cache is still valid
-        if (currentTime - lastFetchTime < CACHE_TTL && !cachedPosts.isEmpty()) {
-            return cachedPosts;
+        // Categories were computed when the posts were synced
+        for (InstagramMedia media : allMedia) {
+            List<InstagramPost> categoryPosts = fullCategorization.get(media.getCategory());
+            if (categoryPosts != null) {
+                categoryPosts.add(toPost(media));
+            }
         }
         
-        // Fetch fresh posts
+        logger.info("Categorized {} posts into {} categories", allMedia.size(), fullCategorization.size());
+        fullCategorization.forEach((cat, postList) -> 
+            logger.info("Category '{}': {} posts", cat, postList.size()));
+        
+        fullCategorization.replaceAll((cat, postList) -> List.copyOf(postList));
+        return fullCategorization;
+    }
+    
+    /**
+     * Fetch fresh Instagram posts from API, unless a refresh is already running.
+     */
+    public void refreshPosts() {
+        if (refreshing.compareAndSet(false, true)) {
+            fetchAndPublish();
+        }
+    }
+    
+    /**
+     * Keeps the cache warm so visitors practically never see an expired snapshot.
+     * The sync runs on the executor, so it does not hold up the other scheduled jobs.
+     */
+    @Scheduled(fixedDelay = REFRESH_INTERVAL, initialDelay = 0)
+    public void scheduledRefresh() {
+        refreshInBackground();
+    }
+    
+    /**
+     * Returns the current snapshot without blocking; an expired snapshot triggers a background refresh.
+     */
+    private PostCache currentPosts() {
+        PostCache current = cache;
+        long now = System.currentTimeMillis();
+        if (now - current.fetchedAt() >= CACHE_TTL && now - lastAttemptTime >= RETRY_INTERVAL) {
+            refreshInBackground();
+        }
+        return current;
+    }
+    
+    /**
+     * Submits a refresh to the executor, unless a refresh is already running.
+     */
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                executorService.execute(this::fetchAndPublish);
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+                logger.warn("Could not schedule Instagram refresh: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Fetches all posts and publishes a new snapshot. Callers must have claimed {@link #refreshing},
+     * which keeps refreshes single-flight; it is released when the fetch completes.
+     */
+    private void fetchAndPublish() {
         try {
-            List<InstagramPost> posts = fetchInstagramPosts();
-            cachedPosts = categorizePosts(posts);
-            lastFetchTime = currentTime;
-            logger.info("Refreshed Instagram posts cache with {} posts", posts.size());
+            lastAttemptTime = System.currentTimeMillis();
+            MediaSync sync = syncInstagramMedia();
+            if (sync.media().isEmpty()) {
+                // Fetch errors also end up here; keep serving the last good posts
+                return;
+            }
+            PostCache current = cache;
+            Map<String, List<InstagramPost>> byCategory = categorizeAllPosts(sync.media());
+            // An unchanged feed keeps its generation, so clients can keep revalidating their copy
+            cache = new PostCache(
+                Map.copyOf(firstPostPerCategory(byCategory)),
+                Map.copyOf(byCategory),
+                System.currentTimeMillis(),
+                sync.changed() || current.fetchedAt() == 0 ? current.generation() + 1 : current.generation());
+            logger.info("Refreshed Instagram posts cache with {} posts", sync.media().size());
         } catch (Exception e) {
             logger.warn("Failed to fetch Instagram posts: {}", e.getMessage());
-            // Return existing cache if available, even if expired
+        } finally {
+            refreshing.set(false);
         }
-        
-        return cachedPosts;
     }
     
-    private List<InstagramPost> fetchInstagramPosts() {
+    /**
+     * Brings the stored posts up to date with the feed and returns all of them, newest first.
+     * If the feed cannot be read, the stored posts are returned unchanged.
+     */
+    private MediaSync syncInstagramMedia() {
         if (accessToken == null || accessToken.trim().isEmpty()) {
             logger.warn("Instagram access token not configured");
-            return Collections.emptyList();
+            return new MediaSync(Collections.emptyList(), false);
+        }
+        
+        List<InstagramMedia> stored = mediaRepository.findAllNewestFirst();
+        Map<String, InstagramMedia> storedById = new HashMap<>();
+        stored.forEach(media -> storedById.put(media.getMediaId(), media));
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiry = now.minus(MEDIA_URL_TTL);
+        Set<String> expiredIds = stored.stream()
+            .filter(media -> media.getMediaUrlFetchedAt().isBefore(expiry))
+            .map(InstagramMedia::getMediaId)
+            .collect(Collectors.toSet());
+        
+        FeedWalk feed = fetchInstagramPosts(storedById.keySet(), expiredIds);
+        if (feed == null) {
+            return new MediaSync(stored, false);
         }
         
+        List<InstagramMedia> added = new ArrayList<>();
+        List<InstagramMedia> changed = new ArrayList<>();
+        for (InstagramPost post : withMissingCarouselChildren(feed.posts())) {
+            InstagramMedia media = storedById.get(post.getId());
+            if (media == null) {
+                media = new InstagramMedia();
+                media.setMediaId(post.getId());
+                added.add(media);
+            }
+            applyPost(media, post, now);
+            changed.add(media);
+        }
+        
+        // Only a walk over the whole feed shows which stored posts were deleted on Instagram
+        List<InstagramMedia> removed = feed.complete() && !feed.seenIds().isEmpty()
+            ? stored.stream().filter(media -> !feed.seenIds().contains(media.getMediaId())).toList()
+            : List.of();
+        
+        mediaRepository.saveAll(changed);
+        mediaRepository.deleteAll(removed);
+        logger.info("Synced Instagram posts: {} new, {} renewed, {} removed",
+            added.size(), changed.size() - added.size(), removed.size());
+        
+        Set<String> removedIds = removed.stream().map(InstagramMedia::getMediaId).collect(Collectors.toSet());
+        List<InstagramMedia> result = new ArrayList<>(added);
+        stored.stream().filter(media -> !removedIds.contains(media.getMediaId())).forEach(result::add);
+        return new MediaSync(result, !changed.isEmpty() || !removed.isEmpty());
+    }
+    
+    /**
+     * Pages through the feed, newest first, and collects posts that are not stored yet or whose media
+     * URL expired. Paging stops at the first page that reaches a stored post once no expired post is
+     * outstanding. Returns null if the feed could not be read.
+     */
+    private FeedWalk fetchInstagramPosts(Set<String> knownIds, Set<String> expiredIds) {
         List<InstagramPost> allPosts = new ArrayList<>();
+        Set<String> seenIds = new HashSet<>();
+        Set<String> pendingExpired = new HashSet<>(expiredIds);
         String nextUrl = null;
         
         try {
-            // Fetch ALL posts using pagination - no limit
-            String url = "https://graph.instagram.com/me/media?fields=id,caption,media_type,media_url,thumbnail_url,permalink,timestamp&limit=100&access_token=" + accessToken;
+            String url = graphUrl + "/me/media?fields=" + MEDIA_FIELDS + "&limit=100&access_token=" + accessToken;
             
             do {
                 logger.info("Fetching Instagram posts from API...");
                 
-                String response = restTemplate.getForObject(url, String.class);
+                // URLs are already encoded, including the paging links returned by the API
+                String response = restTemplate.getForObject(URI.create(url), String.class);
                 JsonNode jsonNode = objectMapper.readTree(response);
                 
                 // Check for API errors
@@ -173,15 +327,25 @@ public class InstagramService {
                         logger.error("Or use the Instagram Basic Display API to get a long-lived token.");
                     }
                     
-                    return Collections.emptyList();
+                    return null;
                 }
                 
+                boolean reachedKnown = false;
                 JsonNode dataNode = jsonNode.get("data");
                 if (dataNode != null && dataNode.isArray()) {
                     for (JsonNode postNode : dataNode) {
                         InstagramPost post = parseInstagramPost(postNode);
-                        if (post != null) {
+                        if (post == null) {
+                            continue;
+                        }
+                        seenIds.add(post.getId());
+                        if (!knownIds.contains(post.getId())) {
                             allPosts.add(post);
+                        } else {
+                            reachedKnown = true;
+                            if (pendingExpired.remove(post.getId())) {
+                                allPosts.add(post);
+                            }
                         }
                     }
                 }
@@ -197,10 +361,15 @@ public class InstagramService {
                 
                 logger.info("Fetched {} posts so far, has next page: {}", allPosts.size(), nextUrl != null);
                 
+                // Everything further down is stored already
+                if (reachedKnown && pendingExpired.isEmpty()) {
+                    return new FeedWalk(allPosts, seenIds, nextUrl == null);
+                }
+                
             } while (nextUrl != null);
             
             logger.info("Successfully fetched {} Instagram posts from API", allPosts.size());
-            return allPosts;
+            return new FeedWalk(allPosts, seenIds, true);
             
         } catch (Exception e) {
             logger.error("Error fetching Instagram posts: {}", e.getMessage());
@@ -215,7 +384,7 @@ public class InstagramService {
                 logger.error("Instagram API returned 401 Unauthorized. Check your access token.");
             }
             
-            return Collections.emptyList();
+            return null;
         }
     }
     
@@ -234,11 +403,11 @@ public class InstagramService {
             
             String caption = postNode.has("caption") ? postNode.get("caption").asText() : "";
             
-            // Handle CAROUSEL_ALBUM - fetch children images
+            // Handle CAROUSEL_ALBUM - children come with the expanded fields; missing ones are fetched afterwards
             List<String> carouselImages = new ArrayList<>();
-            if ("CAROUSEL_ALBUM".equals(mediaType)) {
-                carouselImages = fetchCarouselChildren(id);
-                logger.info("Carousel post {} has {} children images", id, carouselImages.size());
+            if ("CAROUSEL_ALBUM".equals(mediaType) && postNode.has("children")) {
+                carouselImages = parseChildren(postNode.get("children").get("data"));
+                logger.debug("Carousel post {} has {} children images", id, carouselImages.size());
             }
             
             return new InstagramPost(id, caption, mediaType, mediaUrl, permalink, timestamp, carouselImages);
@@ -248,147 +417,136 @@ public class InstagramService {
         }
     }
     
+    /**
+     * Fills in the children of carousels whose children were not expanded in the media listing.
+     * The fetches run concurrently on the shared executor, at most {@link #MAX_CONCURRENT_CHILD_FETCHES}
+     * at a time; a carousel whose fetch fails or times out keeps an empty children list.
+     */
+    private List<InstagramPost> withMissingCarouselChildren(List<InstagramPost> posts) {
+        List<InstagramPost> missing = posts.stream()
+            .filter(post -> post.isCarousel() && post.getCarouselImages().isEmpty())
+            .toList();
+        if (missing.isEmpty()) {
+            return posts;
+        }
+        
+        Semaphore permits = new Semaphore(MAX_CONCURRENT_CHILD_FETCHES);
+        Map<String, Future<List<String>>> pending = new HashMap<>();
+        for (InstagramPost post : missing) {
+            pending.put(post.getId(), executorService.submit(() -> {
+                permits.acquire();
+                try {
+                    return fetchCarouselChildren(post.getId());
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(childFetchTimeoutMillis);
+        Map<String, List<String>> children = new HashMap<>();
+        for (Map.Entry<String, Future<List<String>>> entry : pending.entrySet()) {
+            try {
+                children.put(entry.getKey(), entry.getValue().get(
+                    Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                logger.warn("Timed out fetching carousel children for {}", entry.getKey());
+            } catch (ExecutionException e) {
+                logger.warn("Failed to fetch carousel children for {}: {}", entry.getKey(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.values().forEach(future -> future.cancel(true));
+                break;
+            }
+        }
+        
+        return posts.stream()
+            .map(post -> children.containsKey(post.getId())
+                ? new InstagramPost(post.getId(), post.getCaption(), post.getMediaType(), post.getMediaUrl(),
+                    post.getPermalink(), post.getTimestamp(), children.get(post.getId()))
+                : post)
+            .toList();
+    }
+    
     /**
      * Fetch children images from a carousel post.
      */
     private List<String> fetchCarouselChildren(String carouselId) {
-        List<String> childrenUrls = new ArrayList<>();
-        
         try {
             String url = String.format(
-                "https://graph.instagram.com/%s/children?fields=id,media_type,media_url,thumbnail_url&access_token=%s",
+                "%s/%s/children?fields=id,media_type,media_url,thumbnail_url&access_token=%s",
+                graphUrl,
                 carouselId,
                 accessToken
             );
             
-            logger.info("Fetching carousel children for post: {}", carouselId);
-            String response = restTemplate.getForObject(url, String.class);
+            logger.debug("Fetching carousel children for post: {}", carouselId);
+            String response = restTemplate.getForObject(URI.create(url), String.class);
             JsonNode jsonNode = objectMapper.readTree(response);
             
-            JsonNode dataNode = jsonNode.get("data");
-            if (dataNode != null && dataNode.isArray()) {
-                for (JsonNode childNode : dataNode) {
-                    String mediaType = childNode.get("media_type").asText();
-                    String mediaUrl;
-                    
-                    // Use thumbnail for videos, media_url for images
-                    if ("VIDEO".equals(mediaType) && childNode.has("thumbnail_url")) {
-                        mediaUrl = childNode.get("thumbnail_url").asText();
-                    } else {
-                        mediaUrl = childNode.get("media_url").asText();
-                    }
-                    
-                    childrenUrls.add(mediaUrl);
-                }
-            }
-            
-            logger.info("Successfully fetched {} children for carousel {}", childrenUrls.size(), carouselId);
+            List<String> childrenUrls = parseChildren(jsonNode.get("data"));
+            logger.debug("Successfully fetched {} children for carousel {}", childrenUrls.size(), carouselId);
+            return childrenUrls;
         } catch (Exception e) {
             logger.error("Failed to fetch carousel children for {}: {}", carouselId, e.getMessage());
+            return new ArrayList<>();
         }
-        
-        return childrenUrls;
     }
     
-    private Map<String, InstagramPost> categorizePosts(List<InstagramPost> posts) {
-        Map<String, List<InstagramPost>> categorizedLists = new HashMap<>();
-        
-        // Initialize categories
-        categorizedLists.put("einzeltechnik", new ArrayList<>());
-        categorizedLists.put("hybridtechnik", new ArrayList<>());
-        categorizedLists.put("volumentechnik", new ArrayList<>());
-        categorizedLists.put("augenbrauen", new ArrayList<>());
-        categorizedLists.put("lifting", new ArrayList<>());
-        categorizedLists.put("general", new ArrayList<>());
-        
-        for (InstagramPost post : posts) {
-            String category = categorizePost(post);
-            if (category != null) {
-                categorizedLists.get(category).add(post);
+    private static List<String> parseChildren(JsonNode dataNode) {
+        List<String> childrenUrls = new ArrayList<>();
+        if (dataNode != null && dataNode.isArray()) {
+            for (JsonNode childNode : dataNode) {
+                String mediaType = childNode.get("media_type").asText();
+                
+                // Use thumbnail for videos, media_url for images
+                if ("VIDEO".equals(mediaType) && childNode.has("thumbnail_url")) {
+                    childrenUrls.add(childNode.get("thumbnail_url").asText());
+                } else {
+                    childrenUrls.add(childNode.get("media_url").asText());
+                }
             }
         }
-        
-        // Convert to the expected format - but keep ALL posts per category
+        return childrenUrls;
+    }
+    
+    private Map<String, InstagramPost> firstPostPerCategory(Map<String, List<InstagramPost>> byCategory) {
+        // The first post per category is used for the treatment images
         Map<String, InstagramPost> result = new HashMap<>();
-        for (Map.Entry<String, List<InstagramPost>> entry : categorizedLists.entrySet()) {
-            String category = entry.getKey();
-            List<InstagramPost> categoryPosts = entry.getValue();
-            
+        byCategory.forEach((category, categoryPosts) -> {
             if (!categoryPosts.isEmpty()) {
-                // For now, just take the first post per category for the main mapping
-                // But the getCategorizedPosts() method will return all posts
                 result.put(category, categoryPosts.get(0));
             }
-        }
-        
+        });
         return result;
     }
     
-    private String categorizePost(InstagramPost post) {
-        String caption = post.getCaption().toLowerCase();
-        
-        // Remove hashtags and clean up text for better matching
-        String cleanCaption = caption.replaceAll("#\\w+", "")  // Remove hashtags
-                                    .replaceAll("[()\\[\\]{}]", " ")  // Remove brackets/parentheses
-                                    .replaceAll("\\s+", " ")  // Normalize whitespace
-                                    .trim();
-        
-        // VERY STRICT keyword matching - posts must explicitly mention the technique
-        
-        // Volumen - HIGHEST priority (most specific keywords)
-        if (cleanCaption.contains("volumen") ||
-            cleanCaption.contains("whispy") ||
-            cleanCaption.contains("wispy") ||
-            cleanCaption.contains("anime")) {
-            return "volumentechnik";
-        }
-        
-        // Hybrid - SECOND priority (exclude if it also has volumen keywords)
-        if (cleanCaption.contains("hybrid")) {
-            // Make sure it's NOT volumen
-            if (!cleanCaption.contains("volumen") &&
-                !cleanCaption.contains("whispy") &&
-                !cleanCaption.contains("wispy") &&
-                !cleanCaption.contains("anime")) {
-                return "hybridtechnik";
-            } else {
-                return "volumentechnik";
-            }
-        }
-        
-        // 1:1 Technik / Einzeltechnik - MOST RESTRICTIVE (only very specific keywords)
-        if (cleanCaption.contains("1:1") || 
-            cleanCaption.contains("einzeltechnik") || 
-            cleanCaption.contains("classic wimpern")) {
-            // Make sure it's NOT hybrid or volumen
-            if (!cleanCaption.contains("hybrid") && 
-                !cleanCaption.contains("volumen") &&
-                !cleanCaption.contains("whispy") &&
-                !cleanCaption.contains("wispy") &&
-                !cleanCaption.contains("anime")) {
-                return "einzeltechnik";
-            }
-        }
-        
-        // Augenbrauen - look for brow keywords (check BEFORE lifting to catch "augenbrauenlifting")
-        if (cleanCaption.contains("augenbrauen") || 
-            cleanCaption.contains("brows") ||
-            cleanCaption.contains("brauen")) {
-            return "augenbrauen";
-        }
-        
-        // Lifting - look for SPECIFIC lifting keywords (not just any "lifting")
-        if (cleanCaption.contains("wimpernlifting") || 
-            cleanCaption.contains("lash lift") ||
-            cleanCaption.contains("lashlifting") ||
-            cleanCaption.contains("wimpern lifting") ||
-            cleanCaption.contains("geliftet")) {
-            return "lifting";
+    /**
+     * Copies a fetched post into its stored form, categorizing it once.
+     */
+    private void applyPost(InstagramMedia media, InstagramPost post, LocalDateTime fetchedAt) {
+        media.setCaption(post.getCaption());
+        media.setMediaType(post.getMediaType());
+        media.setMediaUrl(post.getMediaUrl());
+        media.setPermalink(post.getPermalink());
+        media.setPostedAt(post.getTimestamp());
+        media.setCategory(categorizePost(post));
+        media.setMediaUrlFetchedAt(fetchedAt);
+        // A failed children fetch keeps the previously stored images
+        if (!post.isCarousel() || !post.getCarouselImages().isEmpty()) {
+            media.setCarouselImages(new ArrayList<>(post.getCarouselImages()));
         }
-        
-        // Default category for posts that don't match specific techniques
-        // These posts will NOT be shown in any service category
-        return "general";
+    }
+    
+    private static InstagramPost toPost(InstagramMedia media) {
+        return new InstagramPost(media.getMediaId(), media.getCaption(), media.getMediaType(), media.getMediaUrl(),
+            media.getPermalink(), media.getPostedAt(), List.copyOf(media.getCarouselImages()));
+    }
+    
+    private String categorizePost(InstagramPost post) {
+        // Rules live in instagram-categories.properties; posts without a keyword end up in "general"
+        return captionCategorizer.categorize(post.getCaption());
     }
     
     private String mapTreatmentToCategory(String treatmentSlug) {
@@ -402,6 +560,35 @@ public class InstagramService {
         };
     }
     
+    /**
+     * Immutable cache content.
+     *
+     * @param firstByCategory first post per category, used for treatment images
+     * @param byCategory      all posts per category
+     * @param fetchedAt       time of the fetch in epoch milliseconds, 0 before the first successful fetch
+     * @param generation      changes whenever the content is replaced
+     */
+    private record PostCache(
+        Map<String, InstagramPost> firstByCategory,
+        Map<String, List<InstagramPost>> byCategory,
+        long fetchedAt,
+        long generation
+    ) {
+    }
+    
+    /**
+     * Result of a sync: all stored posts, newest first, and whether anything was written.
+     */
+    private record MediaSync(List<InstagramMedia> media, boolean changed) {
+    }
+    
+    /**
+     * Posts collected while paging the feed, the ids of all posts seen on the way and whether the
+     * walk reached the end of the feed.
+     */
+    private record FeedWalk(List<InstagramPost> posts, Set<String> seenIds, boolean complete) {
+    }
+    
     /**
      * Instagram Post data class.
      */
@@ -25,8 +25,8 @@ public class InstagramTokenService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     
-    public InstagramTokenService() {
-        this.restTemplate = new RestTemplate();
+    public InstagramTokenService(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
     }
     
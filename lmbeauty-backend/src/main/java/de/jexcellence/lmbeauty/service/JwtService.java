@@ -1,26 +1,59 @@
 package de.jexcellence.lmbeauty.service;
 
+import de.jexcellence.lmbeauty.config.AuthenticatedUser;
 import de.jexcellence.lmbeauty.config.JwtProperties;
+import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.lmbeauty.type.EUserRole;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens.
+ * <p>
+ * The signing key and parser are built once. Verified claims are cached by token hash until the
+ * token's expiration, so repeated requests with the same token skip signature verification.
+ * <p>
+ * Tokens carry the user id, role and a token version, which is enough to build the request's
+ * {@link AuthenticatedUser} without loading the user. A token is revoked by raising the minimum
+ * accepted version of its user, e.g. on logout.
+ */
 @Service
 @RequiredArgsConstructor
 public class JwtService {
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+    private static final long REVOCATION_PURGE_INTERVAL = 3600000; // 1 hour
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final JwtProperties jwtProperties;
 
+    private final ConcurrentHashMap<String, VerifiedClaims> verifiedClaims = new ConcurrentHashMap<>();
+    private volatile SecretKey signInKey;
+    private volatile JwtParser parser;
+    // Lowest token version still accepted per user; only users with revoked tokens are listed
+    private final ConcurrentHashMap<Long, Long> minimumTokenVersions = new ConcurrentHashMap<>();
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -34,6 +67,17 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * Issues a token that also carries the claims needed to authenticate without a user lookup.
+     */
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, currentTokenVersion(user.getId()));
+        return generateToken(claims, user);
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return buildToken(extraClaims, userDetails, jwtProperties.getExpiration());
     }
@@ -49,27 +93,138 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    /**
+     * Checks already verified claims against the user, without parsing the token again.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+
+    /**
+     * Builds the principal from the claims, or returns null for tokens issued without user claims.
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        return new AuthenticatedUser(
+            userId.longValue(),
+            claims.getSubject(),
+            EUserRole.valueOf(claims.get(CLAIM_ROLE, String.class)));
+    }
+
+    /**
+     * Whether the token was issued after the last revocation of its user's tokens.
+     */
+    public boolean isTokenCurrent(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            // Tokens without user claims cannot be revoked and simply run out
+            return true;
+        }
+        Long minimumVersion = minimumTokenVersions.get(userId.longValue());
+        if (minimumVersion == null) {
+            return true;
+        }
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return version != null && version.longValue() >= minimumVersion;
+    }
+
+    /**
+     * Revokes all access tokens issued to the user so far, e.g. on logout or after a role change.
+     */
+    public void revokeTokens(Long userId) {
+        minimumTokenVersions.merge(userId, System.currentTimeMillis() + 1, Math::max);
+    }
+
+    /**
+     * Forgets revocations whose tokens have all expired, keeping the map small.
+     */
+    @Scheduled(fixedDelay = REVOCATION_PURGE_INTERVAL)
+    public void purgeRevocations() {
+        long cutoff = System.currentTimeMillis() - jwtProperties.getExpiration();
+        minimumTokenVersions.values().removeIf(minimumVersion -> minimumVersion < cutoff);
+    }
+
+    /**
+     * Versions are issue times, so they keep increasing across restarts.
+     */
+    private long currentTokenVersion(Long userId) {
+        return Math.max(System.currentTimeMillis(), minimumTokenVersions.getOrDefault(userId, 0L));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Returns the claims of a token with a valid signature that has not expired.
+     * Tokens seen before are answered from the cache without verifying the signature again.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims extractAllClaims(String token) {
+        String tokenHash = hash(token);
+        long now = System.currentTimeMillis();
+        VerifiedClaims cached = verifiedClaims.get(tokenHash);
+        if (cached != null) {
+            if (now < cached.expiresAt()) {
+                return cached.claims();
+            }
+            verifiedClaims.remove(tokenHash, cached);
+        }
+
+        Claims claims = getParser().parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            if (expiration.getTime() <= now) {
+                // Parsing already rejects expired tokens, this only guards the exp boundary
+                throw new ExpiredJwtException(null, claims, "JWT expired");
+            }
+            cache(tokenHash, new VerifiedClaims(claims, expiration.getTime()), now);
+        }
+        return claims;
+    }
+
+    private void cache(String tokenHash, VerifiedClaims claims, long now) {
+        if (verifiedClaims.size() >= MAX_CACHED_TOKENS) {
+            verifiedClaims.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (verifiedClaims.size() >= MAX_CACHED_TOKENS) {
+                verifiedClaims.clear();
+            }
+        }
+        verifiedClaims.put(tokenHash, claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSignInKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser().verifyWith(getSignInKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
     private SecretKey getSignInKey() {
+        SecretKey current = signInKey;
+        if (current == null) {
+            // Built on first use, so a misconfigured secret fails the same requests as before
+            current = buildSignInKey();
+            signInKey = current;
+        }
+        return current;
+    }
+
+    private SecretKey buildSignInKey() {
         String secret = jwtProperties.getSecret();
         byte[] keyBytes;
         try {
@@ -78,9 +233,12 @@ public class JwtService {
             try {
                 keyBytes = Decoders.BASE64URL.decode(secret);
             } catch (Exception e2) {
-                keyBytes = secret.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                keyBytes = secret.getBytes(StandardCharsets.UTF_8);
             }
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    private record VerifiedClaims(Claims claims, long expiresAt) {
+    }
 }
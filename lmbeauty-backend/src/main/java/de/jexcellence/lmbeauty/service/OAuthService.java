@@ -7,6 +7,7 @@ import de.jexcellence.lmbeauty.database.entity.OAuthProvider;
 import de.jexcellence.lmbeauty.database.entity.RefreshToken;
 import de.jexcellence.lmbeauty.database.entity.User;
 import de.jexcellence.lmbeauty.database.repository.OAuthAccountRepository;
+import de.jexcellence.lmbeauty.database.repository.OAuthAccountRepository.LoginMatch;
 import de.jexcellence.lmbeauty.database.repository.UserRepository;
 import de.jexcellence.lmbeauty.dto.AuthResponse;
 import de.jexcellence.lmbeauty.type.EUserRole;
@@ -22,9 +23,14 @@ import org.springframework.web.client.RestTemplate;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -38,7 +44,8 @@ public class OAuthService {
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
     private final PasswordEncoder passwordEncoder;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final ExecutorService executorService;
 
     // ==================== URL Generation ====================
 
@@ -129,7 +136,7 @@ public class OAuthService {
             Map<String, Object> tokenResponse = exchangeGoogleCode(code);
             String accessToken = (String) tokenResponse.get("access_token");
 
-            Map<String, Object> userInfo = getGoogleUserInfo(accessToken);
+            Map<String, Object> userInfo = getGoogleProfile(tokenResponse, accessToken);
             String providerUserId = (String) userInfo.get("sub");
             String email = (String) userInfo.get("email");
             String name = (String) userInfo.get("name");
@@ -139,7 +146,7 @@ public class OAuthService {
                 OAuthProvider.GOOGLE,
                 providerUserId,
                 email,
-                name,
+                () -> name,
                 picture,
                 accessToken,
                 (String) tokenResponse.get("refresh_token")
@@ -160,14 +167,15 @@ public class OAuthService {
             String accessToken = (String) tokenResponse.get("access_token");
             String userId = String.valueOf(tokenResponse.get("user_id"));
 
-            Map<String, Object> userInfo = getInstagramUserInfo(accessToken);
-            String username = (String) userInfo.get("username");
+            // The username is only needed for new accounts, so it is fetched while the account is looked up
+            CompletableFuture<String> username = CompletableFuture.supplyAsync(
+                () -> (String) getInstagramUserInfo(accessToken).get("username"), executorService);
 
             return processOAuthLogin(
                 OAuthProvider.INSTAGRAM,
                 userId,
                 null,
-                username,
+                username::join,
                 null,
                 accessToken,
                 null
@@ -207,7 +215,7 @@ public class OAuthService {
                 OAuthProvider.FACEBOOK,
                 providerUserId,
                 email,
-                name,
+                () -> name,
                 picture,
                 accessToken,
                 null
@@ -227,10 +235,7 @@ public class OAuthService {
             Map<String, Object> tokenResponse = exchangeAppleCode(code);
             String accessToken = (String) tokenResponse.get("access_token");
             
-            String[] parts = idToken.split("\\.");
-            String payload = new String(java.util.Base64.getUrlDecoder().decode(parts[1]));
-            @SuppressWarnings("unchecked")
-            Map<String, Object> claims = new com.google.gson.Gson().fromJson(payload, Map.class);
+            Map<String, Object> claims = decodeIdTokenClaims(idToken);
             
             String providerUserId = (String) claims.get("sub");
             String email = (String) claims.get("email");
@@ -239,7 +244,7 @@ public class OAuthService {
                 OAuthProvider.APPLE,
                 providerUserId,
                 email,
-                null,
+                () -> null,
                 null,
                 accessToken,
                 (String) tokenResponse.get("refresh_token")
@@ -298,6 +303,22 @@ public class OAuthService {
         return response;
     }
 
+    /**
+     * Reads the profile from the ID token that Google returns for the openid scope, saving the
+     * userinfo round trip. The token comes directly from Google's token endpoint over TLS, so its
+     * signature need not be checked (OpenID Connect Core 3.1.3.7); it must still be issued to this client.
+     */
+    private Map<String, Object> getGoogleProfile(Map<String, Object> tokenResponse, String accessToken) {
+        if (tokenResponse.get("id_token") instanceof String idToken) {
+            Map<String, Object> claims = decodeIdTokenClaims(idToken);
+            if (oAuthProperties.getGoogle().getClientId().equals(claims.get("aud"))
+                    && claims.get("sub") != null && claims.get("email") != null) {
+                return claims;
+            }
+        }
+        return getGoogleUserInfo(accessToken);
+    }
+
     private Map<String, Object> exchangeInstagramCode(String code) {
         OAuthProperties.Provider instagram = oAuthProperties.getInstagram();
         String tokenUrl = instagram.getTokenUrl() != null 
@@ -389,6 +410,14 @@ public class OAuthService {
         return response;
     }
 
+    private static Map<String, Object> decodeIdTokenClaims(String idToken) {
+        String[] parts = idToken.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> claims = new com.google.gson.Gson().fromJson(payload, Map.class);
+        return claims;
+    }
+
     private String generateAppleClientSecret() {
         // Apple requires a JWT client secret signed with your private key
         // This is a placeholder - implement proper JWT generation
@@ -401,7 +430,7 @@ public class OAuthService {
         OAuthProvider provider,
         String providerUserId,
         String email,
-        String displayName,
+        Supplier<String> displayName,
         String avatarUrl,
         String accessToken,
         String refreshToken
@@ -409,18 +438,22 @@ public class OAuthService {
         log.info("Processing OAuth login for provider: {}, providerUserId: {}, email: {}", 
                 provider, providerUserId, email);
         
-        OAuthAccount existingOAuth = oAuthAccountRepository
-            .findByProviderAndProviderUserIdWithUser(provider, providerUserId)
+        // Providers without an email get a generated one
+        String loginEmail = email != null
+            ? email
+            : provider.name().toLowerCase() + "_" + providerUserId + "@oauth.lmbeauty.de";
+
+        // Linked account, otherwise user by email, in one transaction
+        LoginMatch match = oAuthAccountRepository
+            .findLoginMatch(provider, providerUserId, loginEmail)
             .orElse(null);
 
         User user;
 
-        if (existingOAuth != null) {
+        if (match != null && match.account() != null) {
             log.info("Found existing OAuth account for provider: {}, providerUserId: {}", provider, providerUserId);
-            user = existingOAuth.getUser();
-            if (user == null) {
-                throw new RuntimeException("User not found for OAuth account");
-            }
+            user = match.user();
+            OAuthAccount existingOAuth = match.account();
             
             existingOAuth.setAccessTokenEnc(accessToken);
             if (refreshToken != null) {
@@ -430,45 +463,35 @@ public class OAuthService {
                 existingOAuth.setProviderAvatarUrl(avatarUrl);
             }
             oAuthAccountRepository.update(existingOAuth);
-        } else if (email != null) {
-            log.info("No existing OAuth account found, checking for user by email: {}", email);
-            user = userRepository.findByEmail(email).orElse(null);
-
-            if (user == null) {
-                log.info("No existing user found with email: {}, creating new user", email);
-                user = createNewUser(email, displayName, avatarUrl);
-            } else {
-                log.info("Found existing user with email: {}, linking OAuth account", email);
-            }
-
-            createOAuthAccount(user, provider, providerUserId, email, displayName, avatarUrl, accessToken, refreshToken);
         } else {
-            String generatedEmail = provider.name().toLowerCase() + "_" + providerUserId + "@oauth.lmbeauty.de";
-            log.info("No email provided, using generated email: {}", generatedEmail);
-            user = userRepository.findByEmail(generatedEmail).orElse(null);
-
-            if (user == null) {
-                user = createNewUser(generatedEmail, displayName, avatarUrl);
+            String name = displayName.get();
+            if (match == null) {
+                log.info("No existing user found with email: {}, creating new user", loginEmail);
+                user = createNewUser(loginEmail, name, avatarUrl);
+            } else {
+                log.info("Found existing user with email: {}, linking OAuth account", loginEmail);
+                user = match.user();
             }
 
-            createOAuthAccount(user, provider, providerUserId, generatedEmail, displayName, avatarUrl, accessToken, refreshToken);
+            createOAuthAccount(user, provider, providerUserId, loginEmail, name, avatarUrl, accessToken, refreshToken);
         }
 
-        // Update last login time - fetch fresh user to avoid lazy loading issues
-        User freshUser = userRepository.findByEmail(user.getEmail())
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        freshUser.setLastLoginAt(new Date());
-        freshUser = userRepository.update(freshUser);
+        // New users are created with their login time. Merging them again would replace their
+        // oauthAccounts collection with the empty one from creation and orphan-delete the new account.
+        if (match != null) {
+            user.setLastLoginAt(new Date());
+            user = userRepository.update(user);
+        }
 
-        String jwtToken = jwtService.generateToken(freshUser);
-        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(freshUser.getId());
+        String jwtToken = jwtService.generateToken(user);
+        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user.getId());
 
         return AuthResponse.builder()
             .success(true)
             .message("Authentication successful")
             .accessToken(jwtToken)
             .refreshToken(newRefreshToken.getToken())
-            .user(mapUserToDto(freshUser))
+            .user(mapUserToDto(user))
             .build();
     }
 
@@ -480,6 +503,7 @@ public class OAuthService {
         user.setPasswordSetByUser(false);
         user.setRole(determineUserRole(email));
         user.setEnabled(true);
+        user.setLastLoginAt(new Date());
 
         if (displayName != null) {
             String[] nameParts = displayName.split(" ", 2);
@@ -538,11 +562,16 @@ public class OAuthService {
         String base = displayName != null ? 
             displayName.toLowerCase().replaceAll("[^a-z0-9]", "") :
             email.split("@")[0].toLowerCase().replaceAll("[^a-z0-9]", "");
+        if (base.isEmpty()) {
+            base = "user";
+        }
 
+        // One query for all taken variants instead of one per attempted suffix
+        Set<String> taken = userRepository.findUsernamesStartingWith(base);
         String username = base;
         int counter = 1;
 
-        while (userRepository.existsByUsername(username)) {
+        while (taken.contains(username)) {
             username = base + counter++;
         }
 
@@ -652,10 +681,7 @@ public class OAuthService {
         String accessToken = (String) tokenResponse.get("access_token");
         String idToken = (String) tokenResponse.get("id_token");
 
-        String[] parts = idToken.split("\\.");
-        String payload = new String(java.util.Base64.getUrlDecoder().decode(parts[1]));
-        @SuppressWarnings("unchecked")
-        Map<String, Object> claims = new com.google.gson.Gson().fromJson(payload, Map.class);
+        Map<String, Object> claims = decodeIdTokenClaims(idToken);
 
         String providerUserId = (String) claims.get("sub");
         String email = (String) claims.get("email");
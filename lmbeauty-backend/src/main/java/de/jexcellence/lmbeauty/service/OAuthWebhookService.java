@@ -34,6 +34,7 @@ public class OAuthWebhookService {
     private final UserRepository userRepository;
     private final OAuthProperties oAuthProperties;
     private final RefreshTokenService refreshTokenService;
+    private final JwtService jwtService;
 
     // In-memory store for deletion status (in production, use database)
     private final ConcurrentHashMap<String, DeletionRecord> deletionRecords = new ConcurrentHashMap<>();
@@ -130,8 +131,9 @@ public class OAuthWebhookService {
         // Mark as inactive (using setEnabled since that's the field name)
         user.setEnabled(false);
         
-        // Clear any refresh tokens
+        // Clear any refresh tokens and invalidate issued access tokens
         refreshTokenService.deleteByUserId(user.getId());
+        jwtService.revokeTokens(user.getId());
         
         // Update the user
         userRepository.update(user);
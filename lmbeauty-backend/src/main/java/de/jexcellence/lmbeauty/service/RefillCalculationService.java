@@ -1,13 +1,12 @@
 package de.jexcellence.lmbeauty.service;
 
-import de.jexcellence.lmbeauty.database.entity.Appointment;
 import de.jexcellence.lmbeauty.database.entity.Treatment;
 import de.jexcellence.lmbeauty.database.entity.TreatmentRefill;
-import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
 import de.jexcellence.lmbeauty.database.repository.TreatmentRefillRepository;
+import de.jexcellence.lmbeauty.dto.booking.TreatmentResponse;
 import de.jexcellence.lmbeauty.dto.refill.RefillEligibilityResponse;
 import de.jexcellence.lmbeauty.dto.refill.RefillOptionDto;
-import de.jexcellence.lmbeauty.type.EAppointmentStatus;
+import de.jexcellence.lmbeauty.type.ETreatmentCategory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,9 +14,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Service for calculating refill eligibility based on customer appointment history.
@@ -28,11 +29,9 @@ import java.util.Set;
 @Transactional(readOnly = true)
 public class RefillCalculationService {
 
-    private final AppointmentRepository appointmentRepository;
     private final TreatmentRefillRepository treatmentRefillRepository;
     private final TreatmentService treatmentService;
-
-    private static final Set<EAppointmentStatus> COMPLETED_STATUSES = Set.of(EAppointmentStatus.COMPLETED);
+    private final RefillEligibilityIndex refillEligibilityIndex;
 
     /**
      * Calculate refill eligibility for a customer and treatment.
@@ -44,33 +43,82 @@ public class RefillCalculationService {
         Treatment treatment = treatmentService.findById(treatmentId);
         if (!treatment.supportsRefills()) {
             log.debug("Treatment {} does not support refills", treatmentId);
-            return RefillEligibilityResponse.builder()
-                    .isEligible(false)
-                    .message("Diese Behandlung unterstützt keine Refills")
-                    .build();
+            return refillsNotSupported();
         }
 
         // Find last completed appointment for this treatment type
-        Optional<Appointment> lastAppointment = findLastCompletedAppointmentForTreatment(customerId, treatmentId);
+        Optional<LocalDateTime> lastAppointment = refillEligibilityIndex.lastCompleted(customerId, treatmentId);
         
         if (lastAppointment.isEmpty()) {
             log.debug("No completed appointments found for customer {} and treatment {}", customerId, treatmentId);
             return RefillEligibilityResponse.noHistory();
         }
 
-        // Calculate weeks since last appointment
-        LocalDateTime lastAppointmentDate = lastAppointment.get().getCompletedAt() != null 
-            ? lastAppointment.get().getCompletedAt()
-            : lastAppointment.get().getScheduledAt();
-            
-        long weeksSince = ChronoUnit.WEEKS.between(lastAppointmentDate.toLocalDate(), LocalDateTime.now().toLocalDate());
-        int weeksSinceInt = Math.toIntExact(weeksSince);
+        return calculateEligibilitySince(treatmentId, lastAppointment.get());
+    }
+
+    /**
+     * Calculate refill eligibility for a customer and several treatments at once, e.g. a whole service menu.
+     * The customer's history is read once and all missing refill tables are loaded with a single query.
+     *
+     * @return eligibility per treatment id, in the order of {@code treatmentIds}
+     */
+    public Map<Long, RefillEligibilityResponse> calculateRefillEligibilityBatch(Long customerId,
+                                                                              Collection<Long> treatmentIds) {
+        log.debug("Calculating refill eligibility for customer {} and {} treatments", customerId, treatmentIds.size());
+
+        Map<Long, RefillEligibilityIndex.LastCompleted> history = refillEligibilityIndex.lastCompletedByTreatment(customerId);
+        refillEligibilityIndex.preloadRefillTables(treatmentIds);
+
+        Map<Long, RefillEligibilityResponse> results = new LinkedHashMap<>();
+        for (Long treatmentId : treatmentIds) {
+            if (results.containsKey(treatmentId)) {
+                continue;
+            }
+            RefillEligibilityIndex.LastCompleted last = history.get(treatmentId);
+            RefillEligibilityResponse eligibility;
+            if (!treatmentService.findById(treatmentId).supportsRefills()) {
+                eligibility = refillsNotSupported();
+            } else if (last == null) {
+                eligibility = RefillEligibilityResponse.noHistory();
+            } else {
+                eligibility = calculateEligibilitySince(treatmentId, last.completedAt());
+            }
+            results.put(treatmentId, eligibility);
+        }
+        return results;
+    }
+
+    /**
+     * Calculate refill eligibility for a customer and every active treatment of a category.
+     */
+    public Map<Long, RefillEligibilityResponse> calculateRefillEligibilityBatchForCategory(Long customerId,
+                                                                                         String treatmentCategory) {
+        ETreatmentCategory category = ETreatmentCategory.valueOf(treatmentCategory.toUpperCase());
+        List<Long> treatmentIds = treatmentService.getTreatmentsByCategory(category).stream()
+                .map(TreatmentResponse::id)
+                .toList();
+        return calculateRefillEligibilityBatch(customerId, treatmentIds);
+    }
+
+    private static RefillEligibilityResponse refillsNotSupported() {
+        return RefillEligibilityResponse.builder()
+                .isEligible(false)
+                .message("Diese Behandlung unterstützt keine Refills")
+                .build();
+    }
+
+    /**
+     * Evaluates the refill table of a treatment for a last appointment on the given date.
+     */
+    private RefillEligibilityResponse calculateEligibilitySince(Long treatmentId, LocalDateTime lastAppointmentDate) {
+        int weeksSinceInt = calculateWeeksBetween(lastAppointmentDate, LocalDateTime.now());
 
         log.debug("Last appointment was {} weeks ago", weeksSinceInt);
 
-        // Get available refill options for this timeframe
-        List<TreatmentRefill> applicableRefills = treatmentRefillRepository
-                .findApplicableRefillsForWeeks(treatmentId, weeksSinceInt);
+        // Get available refill options for this timeframe, lowest threshold first
+        List<TreatmentRefill> applicableRefills = refillEligibilityIndex.refillTable(treatmentId)
+                .applicableFor(weeksSinceInt);
 
         if (applicableRefills.isEmpty()) {
             log.debug("No applicable refills found for {} weeks", weeksSinceInt);
@@ -82,16 +130,11 @@ public class RefillCalculationService {
                 .map(RefillOptionDto::fromEntity)
                 .toList();
 
-        // Find recommended option (best/lowest threshold)
-        Optional<TreatmentRefill> bestRefill = treatmentRefillRepository
-                .findBestRefillForWeeks(treatmentId, weeksSinceInt);
-        
-        RefillOptionDto recommendedOption = bestRefill
-                .map(refill -> RefillOptionDto.fromEntity(refill, true))
-                .orElse(null);
+        // Recommended option is the best/lowest threshold
+        RefillOptionDto recommendedOption = RefillOptionDto.fromEntity(applicableRefills.getFirst(), true);
 
         log.debug("Found {} applicable refill options, recommended: {}", 
-                 refillOptions.size(), recommendedOption != null ? recommendedOption.getDescription() : "none");
+                 refillOptions.size(), recommendedOption.getDescription());
 
         return RefillEligibilityResponse.eligible(weeksSinceInt, refillOptions, recommendedOption, lastAppointmentDate);
     }
@@ -104,14 +147,14 @@ public class RefillCalculationService {
         log.debug("Calculating refill eligibility for customer {} and category {}", customerId, treatmentCategory);
 
         // Find last completed appointment for any treatment in this category
-        Optional<Appointment> lastAppointment = findLastCompletedAppointmentForCategory(customerId, treatmentCategory);
+        Optional<Long> lastTreatmentId = refillEligibilityIndex.lastCompletedTreatmentInCategory(customerId, treatmentCategory);
         
-        if (lastAppointment.isEmpty()) {
+        if (lastTreatmentId.isEmpty()) {
             return RefillEligibilityResponse.noHistory();
         }
 
         // Use the specific treatment from the last appointment
-        return calculateRefillEligibility(customerId, lastAppointment.get().getTreatment().getId());
+        return calculateRefillEligibility(customerId, lastTreatmentId.get());
     }
 
     /**
@@ -133,26 +176,6 @@ public class RefillCalculationService {
         return Optional.ofNullable(eligibility.getRecommendedOption());
     }
 
-    /**
-     * Find the last completed appointment for a specific treatment.
-     */
-    private Optional<Appointment> findLastCompletedAppointmentForTreatment(Long customerId, Long treatmentId) {
-        return appointmentRepository.findByCustomerIdAndStatusIn(customerId, COMPLETED_STATUSES)
-                .stream()
-                .filter(appointment -> appointment.getTreatment().getId().equals(treatmentId))
-                .findFirst(); // Already sorted by scheduledAt desc
-    }
-
-    /**
-     * Find the last completed appointment for any treatment in a category.
-     */
-    private Optional<Appointment> findLastCompletedAppointmentForCategory(Long customerId, String treatmentCategory) {
-        return appointmentRepository.findByCustomerIdAndStatusIn(customerId, COMPLETED_STATUSES)
-                .stream()
-                .filter(appointment -> appointment.getTreatment().getCategory().name().equalsIgnoreCase(treatmentCategory))
-                .findFirst(); // Already sorted by scheduledAt desc
-    }
-
     /**
      * Calculate weeks between two dates.
      */
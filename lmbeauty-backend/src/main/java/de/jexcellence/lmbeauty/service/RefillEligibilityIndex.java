@@ -0,0 +1,207 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.database.entity.Appointment;
+import de.jexcellence.lmbeauty.database.entity.TreatmentRefill;
+import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
+import de.jexcellence.lmbeauty.database.repository.SecondaryIndexRegistry;
+import de.jexcellence.lmbeauty.database.repository.TreatmentRefillRepository;
+import de.jexcellence.lmbeauty.type.EAppointmentStatus;
+import de.jexcellence.lmbeauty.type.ETreatmentCategory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inputs of the refill eligibility check: the last completed appointment per
+ * (customer, treatment) and the active refill thresholds per treatment.
+ * <p>
+ * A customer's history is loaded with one query on first access and afterwards maintained by
+ * {@link AppointmentService#completeAppointment}. Histories are dropped a few hours after loading
+ * and the number of cached customers is bounded, so returning visitors are served from memory
+ * without the cache growing with every customer ever seen. Refill tables are dropped whenever a
+ * {@link TreatmentRefill} change of their treatment is committed.
+ */
+@Component
+public class RefillEligibilityIndex {
+
+    private static final Set<EAppointmentStatus> COMPLETED_STATUSES = Set.of(EAppointmentStatus.COMPLETED);
+    private static final int MAX_CACHED_CUSTOMERS = 10_000;
+    private static final long CUSTOMER_HISTORY_TTL = 21600000; // 6 hours
+    private static final long EVICTION_INTERVAL = 3600000; // 1 hour
+
+    private final AppointmentRepository appointmentRepository;
+    private final TreatmentRefillRepository treatmentRefillRepository;
+
+    private final ConcurrentHashMap<Long, CustomerHistory> lastCompletedByCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, RefillTable> refillTables = new ConcurrentHashMap<>();
+
+    public RefillEligibilityIndex(AppointmentRepository appointmentRepository,
+                                  TreatmentRefillRepository treatmentRefillRepository,
+                                  SecondaryIndexRegistry secondaryIndexRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.treatmentRefillRepository = treatmentRefillRepository;
+        secondaryIndexRegistry.onCommittedChange(TreatmentRefill.class,
+            refill -> refillTables.remove(refill.getTreatment().getId()));
+    }
+
+    /**
+     * Returns the date of the customer's last completed appointment per treatment id.
+     */
+    public Map<Long, LastCompleted> lastCompletedByTreatment(Long customerId) {
+        CustomerHistory history = lastCompletedByCustomer.get(customerId);
+        if (history == null) {
+            ensureCapacity();
+            history = lastCompletedByCustomer.computeIfAbsent(customerId,
+                id -> new CustomerHistory(loadCustomer(id), System.currentTimeMillis()));
+        }
+        return history.byTreatment();
+    }
+
+    public Optional<LocalDateTime> lastCompleted(Long customerId, Long treatmentId) {
+        return Optional.ofNullable(lastCompletedByTreatment(customerId).get(treatmentId))
+            .map(LastCompleted::completedAt);
+    }
+
+    /**
+     * Returns the treatment of the customer's most recent completed appointment in the given category.
+     */
+    public Optional<Long> lastCompletedTreatmentInCategory(Long customerId, String category) {
+        Long treatmentId = null;
+        LocalDateTime latest = null;
+        for (Map.Entry<Long, LastCompleted> entry : lastCompletedByTreatment(customerId).entrySet()) {
+            LastCompleted last = entry.getValue();
+            if (last.category().name().equalsIgnoreCase(category)
+                    && (latest == null || last.completedAt().isAfter(latest))) {
+                treatmentId = entry.getKey();
+                latest = last.completedAt();
+            }
+        }
+        return Optional.ofNullable(treatmentId);
+    }
+
+    public RefillTable refillTable(Long treatmentId) {
+        return refillTables.computeIfAbsent(treatmentId,
+            id -> new RefillTable(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(id)));
+    }
+
+    /**
+     * Loads the refill tables of all given treatments that are not cached yet with one query.
+     */
+    public void preloadRefillTables(Collection<Long> treatmentIds) {
+        List<Long> missing = treatmentIds.stream()
+            .filter(id -> !refillTables.containsKey(id))
+            .distinct()
+            .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<TreatmentRefill>> refillsByTreatment = new HashMap<>();
+        for (TreatmentRefill refill : treatmentRefillRepository.findActiveByTreatmentIdIn(missing)) {
+            refillsByTreatment.computeIfAbsent(refill.getTreatment().getId(), id -> new ArrayList<>()).add(refill);
+        }
+        for (Long treatmentId : missing) {
+            refillTables.putIfAbsent(treatmentId, new RefillTable(refillsByTreatment.getOrDefault(treatmentId, List.of())));
+        }
+    }
+
+    /**
+     * Records a newly completed appointment for customers whose history is already loaded.
+     */
+    public void onAppointmentCompleted(Appointment appointment) {
+        lastCompletedByCustomer.computeIfPresent(appointment.getCustomer().getId(), (id, history) -> {
+            Map<Long, LastCompleted> updated = new HashMap<>(history.byTreatment());
+            merge(updated, appointment);
+            return new CustomerHistory(Map.copyOf(updated), history.loadedAt());
+        });
+    }
+
+    /**
+     * Drops customer histories loaded longer than {@link #CUSTOMER_HISTORY_TTL} ago.
+     */
+    @Scheduled(fixedDelay = EVICTION_INTERVAL)
+    public void evictExpiredCustomers() {
+        long cutoff = System.currentTimeMillis() - CUSTOMER_HISTORY_TTL;
+        lastCompletedByCustomer.values().removeIf(history -> history.loadedAt() < cutoff);
+    }
+
+    int cachedCustomerCount() {
+        return lastCompletedByCustomer.size();
+    }
+
+    private void ensureCapacity() {
+        if (lastCompletedByCustomer.size() < MAX_CACHED_CUSTOMERS) {
+            return;
+        }
+        evictExpiredCustomers();
+        if (lastCompletedByCustomer.size() >= MAX_CACHED_CUSTOMERS) {
+            lastCompletedByCustomer.clear();
+        }
+    }
+
+    private Map<Long, LastCompleted> loadCustomer(Long customerId) {
+        Map<Long, LastCompleted> history = new HashMap<>();
+        for (Appointment appointment : appointmentRepository.findByCustomerIdAndStatusIn(customerId, COMPLETED_STATUSES)) {
+            merge(history, appointment);
+        }
+        return Map.copyOf(history);
+    }
+
+    private static void merge(Map<Long, LastCompleted> history, Appointment appointment) {
+        LocalDateTime completedAt = appointment.getCompletedAt() != null
+            ? appointment.getCompletedAt()
+            : appointment.getScheduledAt();
+        LastCompleted candidate = new LastCompleted(completedAt, appointment.getTreatment().getCategory());
+        history.merge(appointment.getTreatment().getId(), candidate,
+            (current, next) -> next.completedAt().isAfter(current.completedAt()) ? next : current);
+    }
+
+    public record LastCompleted(LocalDateTime completedAt, ETreatmentCategory category) {
+    }
+
+    private record CustomerHistory(Map<Long, LastCompleted> byTreatment, long loadedAt) {
+    }
+
+    /**
+     * Active refill options of one treatment sorted by week threshold.
+     */
+    public static final class RefillTable {
+
+        private final List<TreatmentRefill> refills;
+        private final int[] thresholds;
+
+        RefillTable(List<TreatmentRefill> refills) {
+            this.refills = refills.stream()
+                .filter(TreatmentRefill::isActive)
+                .sorted((a, b) -> Integer.compare(a.getWeekThreshold(), b.getWeekThreshold()))
+                .toList();
+            this.thresholds = this.refills.stream().mapToInt(TreatmentRefill::getWeekThreshold).toArray();
+        }
+
+        /**
+         * Options with {@code weekThreshold >= weeks}, lowest threshold (the recommended one) first.
+         */
+        public List<TreatmentRefill> applicableFor(int weeks) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] < weeks) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return refills.subList(low, refills.size());
+        }
+    }
+}
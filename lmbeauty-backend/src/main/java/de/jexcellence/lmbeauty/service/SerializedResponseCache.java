@@ -0,0 +1,72 @@
+package de.jexcellence.lmbeauty.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Finished JSON response bodies of public endpoints, kept as plain and gzip-compressed bytes.
+ * <p>
+ * Every entry is tagged with the version of the data it was serialized from, usually the ETag
+ * of the response. A body is serialized and compressed again only after that version changed,
+ * so serving an unchanged payload costs no serialization or compression work.
+ */
+@Component
+public class SerializedResponseCache {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentHashMap<String, SerializedBody> bodies = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the body stored under {@code key} for {@code version}, serializing {@code body} if the version changed.
+     */
+    public SerializedBody get(String key, String version, Supplier<?> body) {
+        SerializedBody cached = bodies.get(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+
+        return bodies.compute(key, (k, existing) -> existing != null && existing.version().equals(version)
+            ? existing
+            : serialize(version, body.get()));
+    }
+
+    /**
+     * Serializes a value that is not worth caching, e.g. an error response.
+     */
+    public byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response body", e);
+        }
+    }
+
+    private SerializedBody serialize(String version, Object value) {
+        byte[] json = toJson(value);
+        return new SerializedBody(version, json, gzip(json));
+    }
+
+    static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress response body", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * UTF-8 JSON body and its gzip encoding. The arrays are shared between requests and must not be modified.
+     */
+    public record SerializedBody(String version, byte[] json, byte[] gzip) {
+    }
+}
@@ -23,11 +23,11 @@ public class StartupTestService {
 
         try {
             // Test the services endpoint
-            var response = frontendController.getServices();
+            var response = frontendController.getServices(null, null);
             log.debug("Services endpoint response status: {}", response.getStatusCode());
 
-            if (response.getBody() != null && response.getBody().getData() != null) {
-                log.debug("Services returned: {} items", response.getBody().getData().size());
+            if (response.getBody() != null) {
+                log.debug("Services returned: {} bytes", response.getBody().length);
             }
 
         } catch (Exception e) {
@@ -1,41 +1,28 @@
 package de.jexcellence.lmbeauty.service;
 
 import de.jexcellence.lmbeauty.config.BookingProperties;
-import de.jexcellence.lmbeauty.database.entity.Appointment;
-import de.jexcellence.lmbeauty.database.entity.BlockedPeriod;
 import de.jexcellence.lmbeauty.database.entity.Treatment;
-import de.jexcellence.lmbeauty.database.entity.WeeklyAvailability;
-import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
-import de.jexcellence.lmbeauty.database.repository.BlockedPeriodRepository;
 import de.jexcellence.lmbeauty.database.repository.TreatmentRepository;
-import de.jexcellence.lmbeauty.database.repository.WeeklyAvailabilityRepository;
 import de.jexcellence.lmbeauty.dto.booking.AvailableSlotsResponse;
 import de.jexcellence.lmbeauty.dto.booking.TimeSlotResponse;
-import de.jexcellence.lmbeauty.type.EAppointmentStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TimeSlotService {
 
-    private static final Set<EAppointmentStatus> BLOCKING_STATUSES = Set.of(
-        EAppointmentStatus.PENDING,
-        EAppointmentStatus.CONFIRMED
-    );
-
     private final TreatmentRepository treatmentRepository;
-    private final WeeklyAvailabilityRepository weeklyAvailabilityRepository;
-    private final BlockedPeriodRepository blockedPeriodRepository;
-    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityBitmapCache availabilityBitmapCache;
+    private final DayCalendarResolver dayCalendarResolver;
+    private final BlockingIntervalIndex blockingIntervalIndex;
     private final BookingProperties bookingProperties;
 
     @Transactional(readOnly = true)
@@ -45,7 +32,8 @@ public class TimeSlotService {
             throw new IllegalArgumentException("Treatment not found or inactive");
         }
 
-        List<TimeSlotResponse> slots = calculateAvailableSlots(treatment, date);
+        List<TimeSlotResponse> slots = calculateAvailableSlots(
+            treatment, availabilityBitmapCache.forDay(date), LocalDateTime.now());
         return new AvailableSlotsResponse(date, treatmentId, slots);
     }
 
@@ -56,80 +44,69 @@ public class TimeSlotService {
             throw new IllegalArgumentException("Treatment not found or inactive");
         }
 
+        // Load every input once for the whole window instead of once per day
+        availabilityBitmapCache.preloadRange(from, to);
+
+        LocalDateTime now = LocalDateTime.now();
         List<AvailableSlotsResponse> result = new ArrayList<>();
         LocalDate current = from;
         while (!current.isAfter(to)) {
-            List<TimeSlotResponse> slots = calculateAvailableSlots(treatment, current);
+            List<TimeSlotResponse> slots = calculateAvailableSlots(
+                treatment, availabilityBitmapCache.forDay(current), now);
             result.add(new AvailableSlotsResponse(current, treatmentId, slots));
             current = current.plusDays(1);
         }
         return result;
     }
 
-    private List<TimeSlotResponse> calculateAvailableSlots(Treatment treatment, LocalDate date) {
-        List<TimeSlotResponse> slots = new ArrayList<>();
-        int durationMinutes = treatment.getDurationMinutes();
-
-        // Get availability windows for this day of week
-        List<WeeklyAvailability> availabilities = weeklyAvailabilityRepository
-            .findByDayOfWeekAndActiveTrue(date.getDayOfWeek());
-
-        if (availabilities.isEmpty()) {
-            return slots;
-        }
-
-        // Get blocked periods for this date
-        LocalDateTime dayStart = date.atStartOfDay();
-        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
-        List<BlockedPeriod> blockedPeriods = blockedPeriodRepository.findOverlapping(dayStart, dayEnd);
-
-        // Get existing appointments for this date
-        List<Appointment> existingAppointments = appointmentRepository
-            .findByScheduledAtBetweenAndStatusIn(dayStart, dayEnd, BLOCKING_STATUSES);
-
-        // Generate slots for each availability window
-        for (WeeklyAvailability availability : availabilities) {
-            LocalTime slotStart = availability.getStartTime();
-            LocalTime windowEnd = availability.getEndTime();
-
-            while (slotStart.plusMinutes(durationMinutes).compareTo(windowEnd) <= 0) {
-                LocalDateTime slotStartDateTime = date.atTime(slotStart);
-                LocalDateTime slotEndDateTime = slotStartDateTime.plusMinutes(durationMinutes);
-
-                boolean available = isSlotAvailable(slotStartDateTime, slotEndDateTime, 
-                    blockedPeriods, existingAppointments);
-
-                slots.add(new TimeSlotResponse(slotStartDateTime, slotEndDateTime, available));
-                slotStart = slotStart.plusMinutes(bookingProperties.getSlotIncrementMinutes());
-            }
-        }
-
-        return slots;
-    }
-
-    private boolean isSlotAvailable(LocalDateTime slotStart, LocalDateTime slotEnd,
-                                    List<BlockedPeriod> blockedPeriods,
-                                    List<Appointment> existingAppointments) {
-        // Check if slot is in the past
+    /**
+     * Checks a single requested slot against the resolved opening hours and existing bookings
+     * without computing the rest of the day. Accepts exactly the starts that
+     * {@link #getAvailableSlots(Long, LocalDate)} lists as available.
+     */
+    @Transactional(readOnly = true)
+    public boolean isSlotAvailable(Treatment treatment, LocalDateTime slotStart) {
+        LocalDateTime slotEnd = slotStart.plusMinutes(treatment.getDurationMinutes());
         if (slotStart.isBefore(LocalDateTime.now())) {
             return false;
         }
 
-        // Check blocked periods
-        for (BlockedPeriod bp : blockedPeriods) {
-            if (slotStart.isBefore(bp.getEndDateTime()) && slotEnd.isAfter(bp.getStartDateTime())) {
-                return false;
-            }
+        LocalDate date = slotStart.toLocalDate();
+        DayCalendarResolver.DayCalendar calendar = dayCalendarResolver.resolve(date);
+        // Slots step from the start of their opening window in slot increments
+        boolean offered = calendar.openingHours().stream().anyMatch(window -> window.contains(slotStart, slotEnd)
+            && Duration.between(window.start(), slotStart).toSeconds() % (bookingProperties.getSlotIncrementMinutes() * 60L) == 0);
+        if (!offered) {
+            return false;
         }
 
-        // Check existing appointments
-        for (Appointment apt : existingAppointments) {
-            LocalDateTime aptEnd = apt.getScheduledAt().plusMinutes(apt.getDurationMinutes());
-            if (slotStart.isBefore(aptEnd) && slotEnd.isAfter(apt.getScheduledAt())) {
-                return false;
+        return !blockingIntervalIndex.forDay(date).overlaps(
+            BlockingIntervalIndex.toEpochMinute(slotStart),
+            BlockingIntervalIndex.toEpochMinute(slotEnd));
+    }
+
+    private List<TimeSlotResponse> calculateAvailableSlots(Treatment treatment,
+                                                           AvailabilityBitmapCache.DayBitmap bitmap,
+                                                           LocalDateTime now) {
+        List<TimeSlotResponse> slots = new ArrayList<>();
+        int durationMinutes = treatment.getDurationMinutes();
+        int incrementMinutes = bookingProperties.getSlotIncrementMinutes();
+
+        // Minutes from which the whole treatment runs without hitting a blocked period or appointment
+        long[] free = bitmap.freeRunStarts(durationMinutes);
+        int dayStartMinute = BlockingIntervalIndex.toEpochMinute(bitmap.getDate().atStartOfDay());
+
+        // Slots step from the start of each opening window, as long as the treatment ends inside it
+        for (DayCalendarResolver.OpenWindow window : bitmap.getOpeningHours()) {
+            LocalDateTime slotStart = window.start();
+            while (!slotStart.plusMinutes(durationMinutes).isAfter(window.end())) {
+                int minute = BlockingIntervalIndex.toEpochMinute(slotStart) - dayStartMinute;
+                boolean available = AvailabilityBitmapCache.DayBitmap.isSet(free, minute) && !slotStart.isBefore(now);
+                slots.add(new TimeSlotResponse(slotStart, slotStart.plusMinutes(durationMinutes), available));
+                slotStart = slotStart.plusMinutes(incrementMinutes);
             }
         }
 
-        return true;
+        return slots;
     }
 }
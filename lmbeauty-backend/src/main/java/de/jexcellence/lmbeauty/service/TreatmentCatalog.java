@@ -0,0 +1,231 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.database.entity.Treatment;
+import de.jexcellence.lmbeauty.database.entity.TreatmentRefill;
+import de.jexcellence.lmbeauty.database.repository.SecondaryIndexRegistry;
+import de.jexcellence.lmbeauty.database.repository.TreatmentRefillRepository;
+import de.jexcellence.lmbeauty.database.repository.TreatmentRepository;
+import de.jexcellence.lmbeauty.dto.booking.TreatmentResponse;
+import de.jexcellence.lmbeauty.dto.frontend.ServiceDto;
+import de.jexcellence.lmbeauty.type.ETreatmentCategory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through snapshot of the treatment catalog.
+ * <p>
+ * Treatments change a few times a month but are read on every page load. The first read after a
+ * committed {@link Treatment} or {@link TreatmentRefill} change builds an immutable {@link Snapshot}
+ * with all lookups and DTO lists precomputed; every following read is a single volatile load.
+ */
+@Component
+public class TreatmentCatalog {
+
+    private static final Comparator<Treatment> BY_SORT_ORDER = Comparator.comparingInt(
+        treatment -> treatment.getSortOrder() != null ? treatment.getSortOrder() : 0);
+
+    private final TreatmentRepository treatmentRepository;
+    private final TreatmentRefillRepository treatmentRefillRepository;
+
+    // Seeded with the start time so versions never repeat across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private volatile Snapshot snapshot;
+
+    public TreatmentCatalog(TreatmentRepository treatmentRepository,
+                            TreatmentRefillRepository treatmentRefillRepository,
+                            SecondaryIndexRegistry secondaryIndexRegistry) {
+        this.treatmentRepository = treatmentRepository;
+        this.treatmentRefillRepository = treatmentRefillRepository;
+        secondaryIndexRegistry.onCommittedChange(Treatment.class, treatment -> invalidate());
+        secondaryIndexRegistry.onCommittedChange(TreatmentRefill.class, refill -> invalidate());
+    }
+
+    /**
+     * Returns the current snapshot, building it if the catalog changed since the last read.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Current catalog version without building a snapshot; changes on every committed catalog change.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Discards the current snapshot; the next read builds a new one.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    private synchronized Snapshot rebuild() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        long buildVersion = version.get();
+        Snapshot built = new Snapshot(
+            buildVersion,
+            treatmentRepository.findAll(0, Integer.MAX_VALUE),
+            treatmentRefillRepository.findByActiveTrueOrderByWeekThresholdAsc());
+        // A change committed while loading must not be hidden behind the older state. Checked again after
+        // publishing, since invalidate() is not synchronized and may land between a check and the write.
+        snapshot = built;
+        if (version.get() != buildVersion) {
+            snapshot = null;
+        }
+        return built;
+    }
+
+    /**
+     * Immutable view of all treatments with their active refill options.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final List<TreatmentResponse> allTreatments;
+        private final List<TreatmentResponse> activeTreatments;
+        private final Map<Long, TreatmentResponse> treatmentsById;
+        private final Map<String, TreatmentResponse> activeTreatmentsBySlug;
+        private final Map<String, List<TreatmentResponse>> activeTreatmentsByUrlSlug;
+        private final Map<ETreatmentCategory, List<TreatmentResponse>> activeTreatmentsByCategory;
+        private final List<Treatment> activeTreatmentEntities;
+        private final Map<Long, List<TreatmentRefill>> refillOptionsByTreatment;
+        private final List<ServiceDto> services;
+        private final Map<String, ServiceDto> servicesBySlug;
+        private final Map<ETreatmentCategory, List<ServiceDto>> servicesByCategory;
+
+        Snapshot(long version, List<Treatment> treatments, List<TreatmentRefill> activeRefills) {
+            this.version = version;
+
+            Map<Long, List<TreatmentRefill>> refills = new HashMap<>();
+            for (TreatmentRefill refill : activeRefills) {
+                refills.computeIfAbsent(refill.getTreatment().getId(), id -> new ArrayList<>()).add(refill);
+            }
+            refills.replaceAll((id, list) -> List.copyOf(list));
+            this.refillOptionsByTreatment = Map.copyOf(refills);
+
+            List<Treatment> sorted = treatments.stream()
+                .sorted(Comparator.comparing(Treatment::getId))
+                .toList();
+            List<Treatment> active = sorted.stream().filter(Treatment::isActive).toList();
+            this.activeTreatmentEntities = active;
+
+            Map<Long, TreatmentResponse> byId = new LinkedHashMap<>();
+            for (Treatment treatment : sorted) {
+                byId.put(treatment.getId(), TreatmentResponse.from(treatment));
+            }
+            this.treatmentsById = byId;
+            this.allTreatments = List.copyOf(byId.values());
+            this.activeTreatments = active.stream().map(treatment -> byId.get(treatment.getId())).toList();
+
+            Map<String, TreatmentResponse> bySlug = new HashMap<>();
+            Map<String, List<TreatmentResponse>> byUrlSlug = new HashMap<>();
+            Map<String, ServiceDto> serviceBySlug = new HashMap<>();
+            List<ServiceDto> allServices = new ArrayList<>();
+            for (Treatment treatment : active) {
+                TreatmentResponse response = byId.get(treatment.getId());
+                ServiceDto service = ServiceDto.fromTreatment(treatment, refillOptions(treatment.getId()), null);
+                bySlug.putIfAbsent(treatment.getSlug(), response);
+                if (treatment.getUrlSlug() != null) {
+                    byUrlSlug.computeIfAbsent(treatment.getUrlSlug(), slug -> new ArrayList<>()).add(response);
+                }
+                serviceBySlug.putIfAbsent(treatment.getSlug(), service);
+                allServices.add(service);
+            }
+            byUrlSlug.replaceAll((slug, list) -> List.copyOf(list));
+            this.activeTreatmentsBySlug = Map.copyOf(bySlug);
+            this.activeTreatmentsByUrlSlug = Map.copyOf(byUrlSlug);
+            this.servicesBySlug = Map.copyOf(serviceBySlug);
+            this.services = List.copyOf(allServices);
+
+            Map<ETreatmentCategory, List<TreatmentResponse>> byCategory = new EnumMap<>(ETreatmentCategory.class);
+            Map<ETreatmentCategory, List<ServiceDto>> serviceByCategory = new EnumMap<>(ETreatmentCategory.class);
+            for (ETreatmentCategory category : ETreatmentCategory.values()) {
+                List<Treatment> inCategory = active.stream()
+                    .filter(treatment -> treatment.getCategory() == category)
+                    .sorted(BY_SORT_ORDER)
+                    .toList();
+                byCategory.put(category, inCategory.stream().map(treatment -> byId.get(treatment.getId())).toList());
+                serviceByCategory.put(category, inCategory.stream().map(treatment -> serviceBySlug.get(treatment.getSlug())).toList());
+            }
+            this.activeTreatmentsByCategory = byCategory;
+            this.servicesByCategory = serviceByCategory;
+        }
+
+        /**
+         * Monotonic catalog version this snapshot was built from.
+         */
+        public long version() {
+            return version;
+        }
+
+        public List<TreatmentResponse> allTreatments() {
+            return allTreatments;
+        }
+
+        public List<TreatmentResponse> activeTreatments() {
+            return activeTreatments;
+        }
+
+        public Optional<TreatmentResponse> treatmentById(Long id) {
+            return Optional.ofNullable(treatmentsById.get(id));
+        }
+
+        public Optional<TreatmentResponse> activeTreatmentBySlug(String slug) {
+            return Optional.ofNullable(activeTreatmentsBySlug.get(slug));
+        }
+
+        public List<TreatmentResponse> activeTreatmentsByUrlSlug(String urlSlug) {
+            return activeTreatmentsByUrlSlug.getOrDefault(urlSlug, List.of());
+        }
+
+        /**
+         * Active treatments of a category, ordered by sort order.
+         */
+        public List<TreatmentResponse> activeTreatmentsByCategory(ETreatmentCategory category) {
+            return activeTreatmentsByCategory.get(category);
+        }
+
+        /**
+         * Active treatment entities, for DTOs that need request-specific data such as Instagram images.
+         */
+        public List<Treatment> activeTreatmentEntities() {
+            return activeTreatmentEntities;
+        }
+
+        public List<TreatmentRefill> refillOptions(Long treatmentId) {
+            return refillOptionsByTreatment.getOrDefault(treatmentId, List.of());
+        }
+
+        public List<ServiceDto> services() {
+            return services;
+        }
+
+        public Optional<ServiceDto> serviceBySlug(String slug) {
+            return Optional.ofNullable(servicesBySlug.get(slug));
+        }
+
+        /**
+         * Active services of a category, ordered by sort order.
+         */
+        public List<ServiceDto> servicesByCategory(ETreatmentCategory category) {
+            return servicesByCategory.get(category);
+        }
+    }
+}
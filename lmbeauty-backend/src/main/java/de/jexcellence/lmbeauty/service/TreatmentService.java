@@ -29,56 +29,39 @@ public class TreatmentService {
     private final TreatmentRepository treatmentRepository;
     private final TreatmentRefillRepository treatmentRefillRepository;
     private final BookingProperties bookingProperties;
+    private final TreatmentCatalog treatmentCatalog;
 
     private static final Pattern NONLATIN = Pattern.compile("[^\\w-]");
     private static final Pattern WHITESPACE = Pattern.compile("[\\s]");
 
-    @Transactional(readOnly = true)
     public List<TreatmentResponse> getActiveTreatments() {
-        return treatmentRepository.findByActiveTrue().stream()
-            .map(TreatmentResponse::from)
-            .toList();
+        return treatmentCatalog.snapshot().activeTreatments();
     }
 
-    @Transactional(readOnly = true)
     public List<TreatmentResponse> getTreatmentsByCategory(ETreatmentCategory category) {
-        return treatmentRepository.findByCategoryOrderBySortOrder(category).stream()
-            .map(TreatmentResponse::from)
-            .toList();
+        return treatmentCatalog.snapshot().activeTreatmentsByCategory(category);
     }
 
-    @Transactional(readOnly = true)
     public List<TreatmentResponse> getAllTreatments() {
-        return treatmentRepository.findAll(0, Integer.MAX_VALUE).stream()
-            .map(TreatmentResponse::from)
-            .toList();
+        return treatmentCatalog.snapshot().allTreatments();
     }
 
-    @Transactional(readOnly = true)
     public TreatmentResponse getTreatmentById(Long id) {
-        Treatment treatment = treatmentRepository.findById(id);
-        if (treatment == null) {
-            throw new IllegalArgumentException("Treatment not found with ID: " + id);
-        }
-        return TreatmentResponse.from(treatment);
+        return treatmentCatalog.snapshot().treatmentById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Treatment not found with ID: " + id));
     }
 
-    @Transactional(readOnly = true)
     public TreatmentResponse getTreatmentBySlug(String slug) {
-        return treatmentRepository.findBySlug(slug)
-            .map(TreatmentResponse::from)
+        return treatmentCatalog.snapshot().activeTreatmentBySlug(slug)
             .orElseThrow(() -> new IllegalArgumentException("Treatment not found with slug: " + slug));
     }
 
     /**
      * Find treatments by URL slug for service parameter support.
      */
-    @Transactional(readOnly = true)
     public List<TreatmentResponse> getTreatmentsByUrlSlug(String urlSlug) {
         log.debug("Finding treatments by URL slug: {}", urlSlug);
-        return treatmentRepository.findByUrlSlugAndActiveTrue(urlSlug).stream()
-                .map(TreatmentResponse::from)
-                .toList();
+        return treatmentCatalog.snapshot().activeTreatmentsByUrlSlug(urlSlug);
     }
 
     /**
@@ -0,0 +1,44 @@
+package de.jexcellence.lmbeauty.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HostConcurrencyLimitInterceptor Tests")
+class HostConcurrencyLimitInterceptorTest {
+
+    private final HostConcurrencyLimitInterceptor interceptor =
+        new HostConcurrencyLimitInterceptor(1, Duration.ofMillis(50));
+
+    @Test
+    @DisplayName("Should reject a request to a host whose permits are all in use")
+    void shouldRejectRequestWhenHostIsSaturated() throws IOException {
+        MockClientHttpRequest graph = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://graph.instagram.com/me"));
+        MockClientHttpRequest google = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://oauth2.googleapis.com/token"));
+
+        // While the Graph request is in flight, a second Graph request waits in vain; other hosts are unaffected
+        ClientHttpResponse response = interceptor.intercept(graph, new byte[0], (request, body) -> {
+            assertThrows(IOException.class, () -> interceptor.intercept(graph, body, (r, b) -> ok()));
+            assertEquals(HttpStatus.OK, interceptor.intercept(google, body, (r, b) -> ok()).getStatusCode());
+            return ok();
+        });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        // The permit is released again afterwards
+        assertEquals(HttpStatus.OK, interceptor.intercept(graph, new byte[0], (r, b) -> ok()).getStatusCode());
+    }
+
+    private static ClientHttpResponse ok() {
+        return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+    }
+}
@@ -0,0 +1,99 @@
+package de.jexcellence.lmbeauty.controller;
+
+import de.jexcellence.lmbeauty.service.InstagramService;
+import de.jexcellence.lmbeauty.service.SerializedResponseCache;
+import de.jexcellence.lmbeauty.service.TreatmentCatalog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FrontendController.class)
+@DisplayName("FrontendController Conditional GET Tests")
+class FrontendControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TreatmentCatalog treatmentCatalog;
+
+    @MockitoBean
+    private InstagramService instagramService;
+
+    @MockitoBean
+    private SerializedResponseCache serializedResponseCache;
+
+    @Test
+    @DisplayName("Should answer 304 for a current catalog ETag without building the catalog")
+    void shouldReturnNotModifiedForCurrentCatalogETag() throws Exception {
+        when(treatmentCatalog.version()).thenReturn(5L);
+
+        mockMvc.perform(get("/api/frontend/services")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"catalog-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog-5\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public, s-maxage=600"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+        verify(treatmentCatalog, never()).snapshot();
+    }
+
+    @Test
+    @DisplayName("Should answer 404 for an unknown service slug even with a current catalog ETag")
+    void shouldNotRevalidateUnknownServiceSlug() throws Exception {
+        TreatmentCatalog.Snapshot catalog = mock(TreatmentCatalog.Snapshot.class);
+        when(catalog.version()).thenReturn(5L);
+        when(treatmentCatalog.version()).thenReturn(5L);
+        when(treatmentCatalog.snapshot()).thenReturn(catalog);
+
+        mockMvc.perform(get("/api/frontend/services/unknown")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"catalog-5\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 for a current Instagram ETag without loading posts")
+    void shouldReturnNotModifiedForCurrentInstagramETag() throws Exception {
+        when(instagramService.getCacheGeneration()).thenReturn(9L);
+
+        mockMvc.perform(get("/api/frontend/instagram/posts")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"instagram-9\""))
+                .andExpect(status().isNotModified());
+
+        verify(instagramService, never()).getCategorizedPosts();
+    }
+
+    @Test
+    @DisplayName("Should not match outdated or foreign ETags")
+    void shouldNotMatchOutdatedETags() {
+        assertFalse(FrontendController.matches(null, "\"catalog-5\""));
+        assertFalse(FrontendController.matches("\"catalog-4\"", "\"catalog-5\""));
+        assertTrue(FrontendController.matches("\"catalog-4\", \"catalog-5\"", "\"catalog-5\""));
+        assertTrue(FrontendController.matches("*", "\"catalog-5\""));
+    }
+
+    @Test
+    @DisplayName("Should keep gzip and identity representations apart")
+    void shouldSelectGzipRepresentation() throws Exception {
+        when(treatmentCatalog.version()).thenReturn(5L);
+
+        mockMvc.perform(get("/api/frontend/services")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"catalog-5-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+        assertTrue(FrontendController.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+        assertFalse(FrontendController.acceptsGzip("gzip;q=0"));
+        assertFalse(FrontendController.acceptsGzip("identity"));
+    }
+}
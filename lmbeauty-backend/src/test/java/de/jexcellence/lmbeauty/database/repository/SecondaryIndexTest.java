@@ -0,0 +1,135 @@
+package de.jexcellence.lmbeauty.database.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SecondaryIndex Tests")
+class SecondaryIndexTest {
+
+    record Row(Long id, String key, int rank) {
+    }
+
+    static class MutableRow {
+        private Long id;
+        private String key;
+        private String note;
+
+        MutableRow() {
+        }
+
+        MutableRow(Long id, String key, String note) {
+            this.id = id;
+            this.key = key;
+            this.note = note;
+        }
+    }
+
+    private final Map<Long, Row> table = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SecondaryIndex<Row, String> hashed() {
+        return SecondaryIndex.hashed(Row.class, Row::key, Row::id, this::loadAll);
+    }
+
+    private SecondaryIndex<Row, Integer> sorted() {
+        return SecondaryIndex.sorted(Row.class, Row::rank, Row::id, this::loadAll);
+    }
+
+    private List<Row> loadAll() {
+        loads.incrementAndGet();
+        return List.copyOf(table.values());
+    }
+
+    private void put(Row row) {
+        table.put(row.id(), row);
+    }
+
+    @Test
+    @DisplayName("Should load once and answer key lookups from memory")
+    void shouldLoadOnce() {
+        put(new Row(1L, "a", 1));
+        put(new Row(2L, "b", 2));
+        put(new Row(3L, "a", 3));
+        var index = hashed();
+
+        assertEquals(2, index.find("a").size());
+        assertTrue(index.contains("b"));
+        assertFalse(index.contains("c"));
+        assertTrue(index.find(null).isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should move entities between keys on committed changes")
+    void shouldApplyChanges() {
+        put(new Row(1L, "a", 1));
+        var index = hashed();
+        index.find("a");
+
+        Row moved = new Row(1L, "b", 1);
+        put(moved);
+        index.onSaved(moved);
+        Row added = new Row(2L, "a", 2);
+        put(added);
+        index.onSaved(added);
+
+        assertEquals(List.of(added), index.find("a"));
+        assertEquals(List.of(moved), index.find("b"));
+
+        table.remove(2L);
+        index.onDeleted(2L);
+        assertFalse(index.contains("a"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should answer range lookups on sorted indexes")
+    void shouldFindRanges() {
+        for (long id = 1; id <= 5; id++) {
+            put(new Row(id, "k", (int) id * 10));
+        }
+        var index = sorted();
+
+        assertEquals(List.of(2L, 3L, 4L), index.findBetween(20, 40).stream().map(Row::id).toList());
+        assertEquals(List.of(4L, 5L), index.findAfter(30).stream().map(Row::id).toList());
+        assertThrows(UnsupportedOperationException.class, () -> hashed().findAfter("a"));
+    }
+
+    @Test
+    @DisplayName("Should rebuild from the loader after invalidation")
+    void shouldRebuildAfterInvalidate() {
+        put(new Row(1L, "a", 1));
+        var index = hashed();
+        assertTrue(index.contains("a"));
+
+        table.clear();
+        index.invalidate();
+
+        assertFalse(index.contains("a"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should hand out copies so callers cannot change what others read")
+    void shouldReturnCopies() {
+        MutableRow committed = new MutableRow(1L, "a", "original");
+        var index = SecondaryIndex.hashed(MutableRow.class, (MutableRow row) -> row.key, row -> row.id,
+            () -> List.of(committed), IndexedCachedRepository::copyOf);
+
+        MutableRow first = index.find("a").getFirst();
+        first.note = "changed before a failed update";
+        committed.note = "changed by the writer after commit";
+
+        MutableRow second = index.find("a").getFirst();
+        assertNotSame(first, second);
+        assertEquals("original", second.note);
+        assertEquals(1L, second.id);
+    }
+}
@@ -0,0 +1,75 @@
+package de.jexcellence.lmbeauty.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AvailabilityBitmapCache.DayBitmap Tests")
+class AvailabilityBitmapCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 3, 4);
+    private static final int DAY_START = BlockingIntervalIndex.toEpochMinute(DATE.atStartOfDay());
+
+    @Test
+    @DisplayName("Should find run starts across word boundaries")
+    void shouldFindRunStartsAcrossWords() {
+        long[] cells = new long[2];
+        // Cells 60..67 open, spanning the first and second word
+        for (int cell = 60; cell < 68; cell++) {
+            cells[cell >>> 6] |= 1L << cell;
+        }
+
+        long[] runs = AvailabilityBitmapCache.DayBitmap.runStarts(cells, 4);
+
+        for (int cell = 0; cell < 128; cell++) {
+            boolean expected = cell >= 60 && cell <= 64;
+            assertEquals(expected, (runs[cell >>> 6] & (1L << cell)) != 0, "cell " + cell);
+        }
+    }
+
+    @Test
+    @DisplayName("Should clear minutes covered by blocking intervals")
+    void shouldClearBlockedMinutes() {
+        // 10:00 - 10:45 blocked
+        var bitmap = bitmap(List.of(window(9, 0, 12, 0)), new int[][] {{DAY_START + 600, DAY_START + 645}});
+        long[] freeRuns = bitmap.freeRunStarts(60);
+
+        assertTrue(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 540));
+        assertTrue(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 645));
+        assertFalse(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 541));
+        assertFalse(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 644));
+        // A run may end exactly at midnight but not reach into the next day
+        assertTrue(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 1380));
+        assertFalse(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 1381));
+    }
+
+    @Test
+    @DisplayName("Should answer exactly for windows and blocks off the slot increment")
+    void shouldHandleUnalignedWindowsAndBlocks() {
+        // Open 09:10 - 17:50, 10:20 - 10:50 blocked
+        var bitmap = bitmap(List.of(window(9, 10, 17, 50)), new int[][] {{DAY_START + 620, DAY_START + 650}});
+        long[] freeRuns = bitmap.freeRunStarts(60);
+
+        // 09:10 and 09:20 end by 10:20, 09:25 runs into the block, 10:50 starts right after it
+        assertTrue(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 550));
+        assertTrue(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 560));
+        assertFalse(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 565));
+        assertFalse(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 649));
+        assertTrue(AvailabilityBitmapCache.DayBitmap.isSet(freeRuns, 650));
+        assertEquals(List.of(window(9, 10, 17, 50)), bitmap.getOpeningHours());
+    }
+
+    private static AvailabilityBitmapCache.DayBitmap bitmap(List<DayCalendarResolver.OpenWindow> openingHours,
+                                                            int[][] blocking) {
+        var calendar = new DayCalendarResolver.DayCalendar(DATE, false, openingHours, openingHours);
+        return new AvailabilityBitmapCache.DayBitmap(calendar, BlockingIntervalIndex.DayIntervals.of(blocking));
+    }
+
+    private static DayCalendarResolver.OpenWindow window(int fromHour, int fromMinute, int toHour, int toMinute) {
+        return new DayCalendarResolver.OpenWindow(DATE.atTime(fromHour, fromMinute), DATE.atTime(toHour, toMinute));
+    }
+}
@@ -0,0 +1,94 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.config.BookingProperties;
+import de.jexcellence.lmbeauty.database.entity.BlockedPeriod;
+import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
+import de.jexcellence.lmbeauty.database.repository.BlockedPeriodRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BlockingIntervalIndex Tests")
+class BlockingIntervalIndexTest {
+
+    @Test
+    @DisplayName("Should detect overlaps using half-open intervals")
+    void shouldDetectOverlaps() {
+        var intervals = BlockingIntervalIndex.DayIntervals.of(new int[][] {
+            {600, 660},
+            {540, 570},
+            {900, 960}
+        });
+
+        assertTrue(intervals.overlaps(550, 560));
+        assertTrue(intervals.overlaps(650, 700));
+        assertTrue(intervals.overlaps(500, 1000));
+        assertFalse(intervals.overlaps(570, 600));
+        assertFalse(intervals.overlaps(660, 900));
+        assertFalse(intervals.overlaps(960, 1020));
+        assertFalse(intervals.overlaps(400, 540));
+    }
+
+    @Test
+    @DisplayName("Should find long intervals that start before shorter ones")
+    void shouldFindEnclosingInterval() {
+        var intervals = BlockingIntervalIndex.DayIntervals.of(new int[][] {
+            {480, 1080},
+            {600, 615}
+        });
+
+        assertTrue(intervals.overlaps(900, 915));
+    }
+
+    @Test
+    @DisplayName("Should add and remove intervals without mutating the original")
+    void shouldAddAndRemoveIntervals() {
+        var empty = BlockingIntervalIndex.DayIntervals.of(new int[0][]);
+        var withOne = empty.with(600, 660);
+        var withTwo = withOne.with(540, 570);
+
+        assertFalse(empty.overlaps(600, 615));
+        assertTrue(withOne.overlaps(600, 615));
+        assertEquals(2, withTwo.size());
+
+        var removed = withTwo.without(600, 660);
+        assertEquals(1, removed.size());
+        assertFalse(removed.overlaps(600, 615));
+        assertTrue(removed.overlaps(540, 555));
+        assertSame(removed, removed.without(700, 760));
+    }
+
+    @Test
+    @DisplayName("Should not install a preloaded range that missed a concurrent change")
+    void shouldDropPreloadThatMissedConcurrentChange() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        BlockedPeriodRepository blockedPeriodRepository = mock(BlockedPeriodRepository.class);
+        var index = new BlockingIntervalIndex(appointmentRepository, blockedPeriodRepository, new BookingProperties());
+
+        LocalDate date = LocalDate.of(2030, 3, 4);
+        BlockedPeriod blockedPeriod = new BlockedPeriod();
+        blockedPeriod.setStartDateTime(date.atTime(10, 0));
+        blockedPeriod.setEndDateTime(date.atTime(11, 0));
+
+        when(appointmentRepository.findByScheduledAtBetweenAndStatusIn(any(), any(), any())).thenReturn(List.of());
+        // The period is committed while the range query is running, after its snapshot was taken
+        when(blockedPeriodRepository.findOverlapping(any(), any()))
+            .thenAnswer(invocation -> {
+                index.onBlockedPeriodCreated(blockedPeriod);
+                return List.of();
+            })
+            .thenReturn(List.of(blockedPeriod));
+
+        index.preloadRange(date, date.plusDays(1));
+
+        assertTrue(index.forDay(date).overlaps(
+            BlockingIntervalIndex.toEpochMinute(date.atTime(10, 30)),
+            BlockingIntervalIndex.toEpochMinute(date.atTime(10, 45))));
+    }
+}
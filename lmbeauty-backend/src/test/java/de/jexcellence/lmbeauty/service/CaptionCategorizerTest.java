@@ -0,0 +1,49 @@
+package de.jexcellence.lmbeauty.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CaptionCategorizer Tests")
+class CaptionCategorizerTest {
+
+    private final CaptionCategorizer categorizer = CaptionCategorizer.fromClasspath("instagram-categories.properties");
+
+    @Test
+    @DisplayName("Should pick the first category in rule order")
+    void shouldPickFirstCategoryInRuleOrder() {
+        assertEquals("volumentechnik", categorizer.categorize("1:1 technique with volumen effect"));
+        assertEquals("hybridtechnik", categorizer.categorize("Hybrid set, classic wimpern base"));
+        assertEquals("augenbrauen", categorizer.categorize("Augenbrauenlifting"));
+        assertEquals("lifting", categorizer.categorize("Frisch geliftet"));
+        assertEquals("general", categorizer.categorize("Termine frei!"));
+        assertEquals("general", categorizer.categorize(null));
+    }
+
+    @Test
+    @DisplayName("Should ignore hashtags and treat brackets and whitespace runs as one space")
+    void shouldNormalizeWhileScanning() {
+        assertEquals("general", categorizer.categorize("Neues Set #volumen #hybrid"));
+        assertEquals("einzeltechnik", categorizer.categorize("Classic\n  (Wimpern)"));
+        assertEquals("lifting", categorizer.categorize("LASH\tLIFT"));
+        assertEquals("general", categorizer.categorize("lashlift#x ing"));
+    }
+
+    @Test
+    @DisplayName("Should find overlapping keywords of different categories")
+    void shouldFindOverlappingKeywords() {
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        rules.put("first", List.of("bcd"));
+        rules.put("second", List.of("abc"));
+        CaptionCategorizer overlapping = new CaptionCategorizer(rules, "none");
+
+        assertEquals("first", overlapping.categorize("xabcd"));
+        assertEquals("second", overlapping.categorize("xabce"));
+        assertEquals(List.of("first", "second", "none"), overlapping.categories());
+    }
+}
@@ -0,0 +1,101 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.database.entity.BlockedPeriod;
+import de.jexcellence.lmbeauty.database.entity.SpecificDateAvailability;
+import de.jexcellence.lmbeauty.database.entity.WeeklyAvailability;
+import de.jexcellence.lmbeauty.database.repository.BlockedPeriodRepository;
+import de.jexcellence.lmbeauty.database.repository.SpecificDateAvailabilityRepository;
+import de.jexcellence.lmbeauty.database.repository.WeeklyAvailabilityRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("DayCalendarResolver Tests")
+class DayCalendarResolverTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 3, 4);
+
+    @Test
+    @DisplayName("Should merge weekly windows and cut out blocked periods")
+    void shouldMergeWeeklyWindowsAndCutBlockedPeriods() {
+        var calendar = DayCalendarResolver.build(
+            DATE,
+            List.of(weekly(13, 17), weekly(9, 13)),
+            List.of(),
+            List.of(blocked(11, 12)));
+
+        assertFalse(calendar.override());
+        assertEquals(1, calendar.openingHours().size());
+        assertEquals(DATE.atTime(9, 0), calendar.openingHours().getFirst().start());
+        assertEquals(DATE.atTime(17, 0), calendar.openingHours().getFirst().end());
+
+        assertEquals(2, calendar.openWindows().size());
+        assertTrue(calendar.isOpen(DATE.atTime(9, 0), DATE.atTime(11, 0)));
+        assertFalse(calendar.isOpen(DATE.atTime(10, 30), DATE.atTime(11, 30)));
+        assertTrue(calendar.isOpen(DATE.atTime(12, 0), DATE.atTime(17, 0)));
+    }
+
+    @Test
+    @DisplayName("Should prefer date-specific availability over the weekly template")
+    void shouldPreferSpecificDateAvailability() {
+        SpecificDateAvailability specific = new SpecificDateAvailability();
+        specific.setDate(DATE);
+        specific.setStartTime(LocalTime.of(14, 0));
+        specific.setEndTime(LocalTime.of(16, 0));
+
+        var calendar = DayCalendarResolver.build(DATE, List.of(weekly(9, 17)), List.of(specific), List.of());
+
+        assertTrue(calendar.override());
+        assertFalse(calendar.isOpen(DATE.atTime(9, 0), DATE.atTime(10, 0)));
+        assertTrue(calendar.isOpen(DATE.atTime(14, 0), DATE.atTime(16, 0)));
+    }
+
+    @Test
+    @DisplayName("Should not install a preloaded range that missed a concurrent invalidation")
+    void shouldDropPreloadThatMissedConcurrentInvalidation() {
+        WeeklyAvailabilityRepository weeklyAvailabilityRepository = mock(WeeklyAvailabilityRepository.class);
+        SpecificDateAvailabilityRepository specificDateAvailabilityRepository = mock(SpecificDateAvailabilityRepository.class);
+        BlockedPeriodRepository blockedPeriodRepository = mock(BlockedPeriodRepository.class);
+        var resolver = new DayCalendarResolver(
+            weeklyAvailabilityRepository, specificDateAvailabilityRepository, blockedPeriodRepository);
+
+        when(weeklyAvailabilityRepository.findByActiveTrue()).thenReturn(List.of(weekly(9, 17)));
+        when(weeklyAvailabilityRepository.findByDayOfWeekAndActiveTrue(DATE.getDayOfWeek()))
+            .thenReturn(List.of(weekly(9, 17)));
+        when(specificDateAvailabilityRepository.findByDateRange(any(), any())).thenReturn(List.of());
+        when(specificDateAvailabilityRepository.findByDateAndActiveTrue(DATE)).thenReturn(List.of());
+        // The period is committed while the range query is running, after its snapshot was taken
+        when(blockedPeriodRepository.findOverlapping(any(), any()))
+            .thenAnswer(invocation -> {
+                resolver.invalidate(DATE.atTime(10, 0), DATE.atTime(11, 0));
+                return List.of();
+            })
+            .thenReturn(List.of(blocked(10, 11)));
+
+        resolver.preloadRange(DATE, DATE);
+
+        assertFalse(resolver.resolve(DATE).isOpen(DATE.atTime(10, 0), DATE.atTime(11, 0)));
+    }
+
+    private WeeklyAvailability weekly(int startHour, int endHour) {
+        WeeklyAvailability availability = new WeeklyAvailability();
+        availability.setDayOfWeek(DATE.getDayOfWeek());
+        availability.setStartTime(LocalTime.of(startHour, 0));
+        availability.setEndTime(LocalTime.of(endHour, 0));
+        return availability;
+    }
+
+    private BlockedPeriod blocked(int startHour, int endHour) {
+        BlockedPeriod blockedPeriod = new BlockedPeriod();
+        blockedPeriod.setStartDateTime(DATE.atTime(startHour, 0));
+        blockedPeriod.setEndDateTime(DATE.atTime(endHour, 0));
+        return blockedPeriod;
+    }
+}
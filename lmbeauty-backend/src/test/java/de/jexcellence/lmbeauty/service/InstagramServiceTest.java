@@ -1,10 +1,33 @@
 package de.jexcellence.lmbeauty.service;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.jexcellence.lmbeauty.database.entity.InstagramMedia;
+import de.jexcellence.lmbeauty.database.repository.InstagramMediaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 /**
  * Test class for InstagramService filtering logic.
@@ -15,11 +38,14 @@ public class InstagramServiceTest {
     
     @Mock
     private InstagramFallbackService fallbackService;
+    
+    @Mock
+    private InstagramMediaRepository mediaRepository;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        instagramService = new InstagramService(fallbackService);
+        instagramService = new InstagramService(fallbackService, mediaRepository, Executors.newSingleThreadExecutor(), new RestTemplate());
     }
 
     @Test
@@ -132,4 +158,187 @@ public class InstagramServiceTest {
             fail("Failed to test categorizePost method: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExpiredCacheStartsOnlyOneBackgroundRefresh() {
+        ExecutorService executor = mock(ExecutorService.class);
+        InstagramService service = new InstagramService(fallbackService, mediaRepository, executor, new RestTemplate());
+        when(fallbackService.getFallbackCategorizedPosts()).thenReturn(Map.of());
+
+        // Both reads are answered from the (empty) snapshot without waiting for the API
+        service.getCategorizedPosts();
+        service.getCategorizedPosts();
+
+        verify(executor, times(1)).execute(any(Runnable.class));
+        verify(fallbackService, times(2)).getFallbackCategorizedPosts();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshOnlyFetchesPostsNewerThanStoredOnes() throws Exception {
+        AtomicInteger lastPageRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        server.createContext("/me/media", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String body;
+            if (query.contains("after=page3")) {
+                lastPageRequests.incrementAndGet();
+                body = "{\"data\":[]}";
+            } else if (query.contains("after=page2")) {
+                body = "{\"data\":[" + post("2", "Hybrid look") + "," + post("1", "Volumen set") + "],"
+                    + "\"paging\":{\"next\":\"" + baseUrl + "/me/media?after=page3\"}}";
+            } else {
+                body = "{\"data\":[" + post("4", "Neues 1:1 Set") + "," + post("3", "Wimpernlifting") + "],"
+                    + "\"paging\":{\"next\":\"" + baseUrl + "/me/media?after=page2\"}}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        
+        try {
+            ReflectionTestUtils.setField(instagramService, "accessToken", "token");
+            ReflectionTestUtils.setField(instagramService, "graphUrl", baseUrl);
+            when(mediaRepository.findAllNewestFirst()).thenReturn(
+                new ArrayList<>(List.of(stored("2", "hybridtechnik"), stored("1", "volumentechnik"))));
+            
+            instagramService.refreshPosts();
+            
+            ArgumentCaptor<List<InstagramMedia>> saved = ArgumentCaptor.forClass(List.class);
+            verify(mediaRepository).saveAll(saved.capture());
+            assertEquals(List.of("4", "3"), saved.getValue().stream().map(InstagramMedia::getMediaId).toList());
+            assertEquals("einzeltechnik", saved.getValue().get(0).getCategory());
+            assertEquals(0, lastPageRequests.get(), "Paging must stop at the first stored post");
+            verify(mediaRepository).deleteAll(List.of());
+            
+            Map<String, List<InstagramService.InstagramPost>> categorized = instagramService.getCategorizedPosts();
+            assertEquals(1, categorized.get("einzeltechnik").size());
+            assertEquals(1, categorized.get("lifting").size());
+            assertEquals(1, categorized.get("hybridtechnik").size());
+            assertEquals(1, categorized.get("volumentechnik").size());
+        } finally {
+            server.stop(0);
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCarouselChildrenAreFetchedConcurrentlyWithinTheDeadline() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        List<String> carouselIds = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            carouselIds.add("c" + i);
+        }
+        server.createContext("/me/media", exchange -> {
+            List<String> posts = new ArrayList<>();
+            posts.add(carousel("slow"));
+            posts.add(carousel("broken"));
+            carouselIds.forEach(id -> posts.add(carousel(id)));
+            respond(exchange, 200, "{\"data\":[" + String.join(",", posts) + "]}");
+        });
+        server.createContext("/", exchange -> {
+            String id = exchange.getRequestURI().getPath().split("/")[1];
+            if (id.equals("slow")) {
+                sleep(5000);
+                respond(exchange, 200, children(id));
+            } else if (id.equals("broken")) {
+                respond(exchange, 500, "{}");
+            } else {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                sleep(100);
+                inFlight.decrementAndGet();
+                respond(exchange, 200, children(id));
+            }
+        });
+        server.start();
+        
+        try {
+            InstagramService service = new InstagramService(fallbackService, mediaRepository,
+                Executors.newVirtualThreadPerTaskExecutor(), new RestTemplate());
+            ReflectionTestUtils.setField(service, "accessToken", "token");
+            ReflectionTestUtils.setField(service, "graphUrl", "http://localhost:" + server.getAddress().getPort());
+            ReflectionTestUtils.setField(service, "childFetchTimeoutMillis", 1000L);
+            // Both stored carousels are due for a URL renewal, so they are fetched again
+            InstagramMedia slow = stored("slow", "general");
+            InstagramMedia broken = stored("broken", "general");
+            for (InstagramMedia media : List.of(slow, broken)) {
+                media.setMediaType("CAROUSEL_ALBUM");
+                media.setCarouselImages(new ArrayList<>(List.of("https://cdn/" + media.getMediaId() + "-old.jpg")));
+                media.setMediaUrlFetchedAt(LocalDateTime.now().minusDays(2));
+            }
+            when(mediaRepository.findAllNewestFirst()).thenReturn(new ArrayList<>(List.of(slow, broken)));
+            
+            long started = System.nanoTime();
+            service.refreshPosts();
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            
+            ArgumentCaptor<List<InstagramMedia>> saved = ArgumentCaptor.forClass(List.class);
+            verify(mediaRepository).saveAll(saved.capture());
+            Map<String, List<String>> images = new HashMap<>();
+            saved.getValue().forEach(media -> images.put(media.getMediaId(), media.getCarouselImages()));
+            
+            assertEquals(14, images.size());
+            carouselIds.forEach(id -> assertEquals(List.of("https://cdn/" + id + "-child.jpg"), images.get(id), id));
+            assertEquals(List.of("https://cdn/slow-old.jpg"), images.get("slow"), "Timed out fetch keeps stored images");
+            assertEquals(List.of("https://cdn/broken-old.jpg"), images.get("broken"), "Failed fetch keeps stored images");
+            assertTrue(maxInFlight.get() <= 8, "At most 8 children fetches run at once, saw " + maxInFlight.get());
+            assertTrue(elapsedMillis < 4000, "The slow carousel must not hold up the refresh, took " + elapsedMillis + " ms");
+        } finally {
+            server.stop(0);
+        }
+    }
+    
+    private static String carousel(String id) {
+        return "{\"id\":\"" + id + "\",\"caption\":\"Volumen\",\"media_type\":\"CAROUSEL_ALBUM\","
+            + "\"media_url\":\"https://cdn/" + id + ".jpg\",\"permalink\":\"https://instagram.com/p/" + id + "\","
+            + "\"timestamp\":\"2025-12-01T10:00:00+0000\"}";
+    }
+    
+    private static String children(String id) {
+        return "{\"data\":[{\"id\":\"" + id + "-1\",\"media_type\":\"IMAGE\","
+            + "\"media_url\":\"https://cdn/" + id + "-child.jpg\"}]}";
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static String post(String id, String caption) {
+        return "{\"id\":\"" + id + "\",\"caption\":\"" + caption + "\",\"media_type\":\"IMAGE\","
+            + "\"media_url\":\"https://cdn/" + id + ".jpg\",\"permalink\":\"https://instagram.com/p/" + id + "\","
+            + "\"timestamp\":\"2025-12-0" + id + "T10:00:00+0000\"}";
+    }
+    
+    private static InstagramMedia stored(String id, String category) {
+        InstagramMedia media = new InstagramMedia();
+        media.setMediaId(id);
+        media.setCaption("");
+        media.setMediaType("IMAGE");
+        media.setMediaUrl("https://cdn/" + id + ".jpg");
+        media.setPermalink("https://instagram.com/p/" + id);
+        media.setPostedAt("2025-12-0" + id + "T10:00:00+0000");
+        media.setCategory(category);
+        media.setMediaUrlFetchedAt(LocalDateTime.now());
+        return media;
+    }
+}
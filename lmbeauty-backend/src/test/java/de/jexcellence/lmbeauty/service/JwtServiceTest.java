@@ -0,0 +1,87 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.config.AuthenticatedUser;
+import de.jexcellence.lmbeauty.config.JwtProperties;
+import de.jexcellence.lmbeauty.type.EUserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtService Tests")
+class JwtServiceTest {
+
+    private JwtProperties jwtProperties;
+    private JwtService jwtService;
+    private UserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("c2VjcmV0LWtleS1mb3ItdGVzdGluZy1vbmx5LXdpdGgtZW5vdWdoLWJpdHM=");
+        jwtService = new JwtService(jwtProperties);
+        user = User.withUsername("kundin@example.com").password("secret").build();
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and serve repeated requests from the cache")
+    void shouldCacheVerifiedClaims() {
+        String token = jwtService.generateToken(user);
+
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        assertSame(first, second);
+        assertEquals("kundin@example.com", first.getSubject());
+        assertTrue(jwtService.isTokenValid(first, user));
+        assertTrue(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    @DisplayName("Should reject expired and tampered tokens")
+    void shouldRejectExpiredAndTamperedTokens() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        jwtProperties.setExpiration(-1000);
+        String expired = jwtService.generateToken(user);
+
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(tampered));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractAllClaims(expired));
+    }
+
+    @Test
+    @DisplayName("Should build the principal from token claims and honor revocations")
+    void shouldBuildPrincipalAndHonorRevocation() {
+        de.jexcellence.lmbeauty.database.entity.User customer = new de.jexcellence.lmbeauty.database.entity.User();
+        customer.setId(7L);
+        customer.setEmail("kundin@example.com");
+        customer.setRole(EUserRole.ADMIN);
+
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(customer));
+
+        assertEquals(new AuthenticatedUser(7L, "kundin@example.com", EUserRole.ADMIN), jwtService.toPrincipal(claims));
+        assertTrue(jwtService.isTokenCurrent(claims));
+
+        jwtService.revokeTokens(7L);
+        assertFalse(jwtService.isTokenCurrent(claims));
+
+        Claims renewed = jwtService.extractAllClaims(jwtService.generateToken(customer));
+        assertTrue(jwtService.isTokenCurrent(renewed));
+    }
+
+    @Test
+    @DisplayName("Should fall back to a user lookup for tokens without user claims")
+    void shouldNotBuildPrincipalForLegacyTokens() {
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(user));
+
+        assertNull(jwtService.toPrincipal(claims));
+        assertTrue(jwtService.isTokenCurrent(claims));
+    }
+}
@@ -0,0 +1,100 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.config.AdminProperties;
+import de.jexcellence.lmbeauty.config.JwtProperties;
+import de.jexcellence.lmbeauty.config.OAuthProperties;
+import de.jexcellence.lmbeauty.database.entity.OAuthAccount;
+import de.jexcellence.lmbeauty.database.entity.OAuthProvider;
+import de.jexcellence.lmbeauty.database.entity.RefreshToken;
+import de.jexcellence.lmbeauty.database.entity.User;
+import de.jexcellence.lmbeauty.database.repository.OAuthAccountRepository;
+import de.jexcellence.lmbeauty.database.repository.OAuthAccountRepository.LoginMatch;
+import de.jexcellence.lmbeauty.database.repository.UserRepository;
+import de.jexcellence.lmbeauty.dto.AuthResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OAuthService Tests")
+class OAuthServiceTest {
+
+    private UserRepository userRepository;
+    private OAuthAccountRepository oAuthAccountRepository;
+    private OAuthService oAuthService;
+
+    private final AtomicReference<OAuthAccount> storedAccount = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        oAuthAccountRepository = mock(OAuthAccountRepository.class);
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        RestTemplate restTemplate = mock(RestTemplate.class);
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("c2VjcmV0LWtleS1mb3ItdGVzdGluZy1vbmx5LXdpdGgtZW5vdWdoLWJpdHM=");
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+            .thenReturn(Map.of("access_token", "fb-token"));
+        when(restTemplate.getForObject(contains("fields="), eq(Map.class)))
+            .thenReturn(Map.of("id", "fb-1", "email", "kundin@example.com", "name", "Lena Muster"));
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(userRepository.findUsernamesStartingWith(anyString())).thenReturn(Set.of());
+        when(userRepository.create(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(42L);
+            return user;
+        });
+        when(userRepository.update(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(oAuthAccountRepository.create(any(OAuthAccount.class))).thenAnswer(invocation -> {
+            storedAccount.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(oAuthAccountRepository.findLoginMatch(OAuthProvider.FACEBOOK, "fb-1", "kundin@example.com"))
+            .thenAnswer(invocation -> Optional.ofNullable(storedAccount.get())
+                .map(account -> new LoginMatch(account.getUser(), account)));
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setToken("refresh");
+        when(refreshTokenService.createRefreshToken(anyLong())).thenReturn(refreshToken);
+
+        oAuthService = new OAuthService(new OAuthProperties(), new AdminProperties(), userRepository,
+            oAuthAccountRepository, new JwtService(jwtProperties), refreshTokenService, passwordEncoder,
+            restTemplate, mock(ExecutorService.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the account of a first-time login linked for the next login")
+    void shouldKeepAccountOfFirstLogin() {
+        AuthResponse first = oAuthService.handleFacebookCallback("code");
+
+        assertTrue(first.isSuccess(), first.getMessage());
+        // The new user is not merged again, which would orphan-delete the account just created
+        verify(userRepository, never()).update(any(User.class));
+        OAuthAccount account = storedAccount.get();
+        assertNotNull(account);
+        assertEquals(42L, account.getUser().getId());
+        assertNotNull(account.getUser().getLastLoginAt());
+
+        AuthResponse second = oAuthService.handleFacebookCallback("code");
+
+        assertTrue(second.isSuccess(), second.getMessage());
+        assertEquals(42L, second.getUser().getId());
+        verify(userRepository, times(1)).create(any(User.class));
+        verify(oAuthAccountRepository, times(1)).create(any(OAuthAccount.class));
+        verify(oAuthAccountRepository).update(account);
+        verify(userRepository).update(account.getUser());
+    }
+}
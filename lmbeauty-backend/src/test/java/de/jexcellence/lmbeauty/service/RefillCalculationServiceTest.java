@@ -5,6 +5,7 @@ import de.jexcellence.lmbeauty.database.entity.Treatment;
 import de.jexcellence.lmbeauty.database.entity.TreatmentRefill;
 import de.jexcellence.lmbeauty.database.entity.User;
 import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
+import de.jexcellence.lmbeauty.database.repository.SecondaryIndexRegistry;
 import de.jexcellence.lmbeauty.database.repository.TreatmentRefillRepository;
 import de.jexcellence.lmbeauty.dto.refill.RefillEligibilityResponse;
 import de.jexcellence.lmbeauty.dto.refill.RefillOptionDto;
@@ -14,13 +15,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -41,7 +42,6 @@ class RefillCalculationServiceTest {
     @Mock
     private TreatmentService treatmentService;
 
-    @InjectMocks
     private RefillCalculationService refillCalculationService;
 
     private User customer;
@@ -54,6 +54,11 @@ class RefillCalculationServiceTest {
 
     @BeforeEach
     void setUp() {
+        RefillEligibilityIndex refillEligibilityIndex = new RefillEligibilityIndex(
+                appointmentRepository, treatmentRefillRepository, new SecondaryIndexRegistry());
+        refillCalculationService = new RefillCalculationService(
+                treatmentRefillRepository, treatmentService, refillEligibilityIndex);
+
         // Create test customer
         customer = new User();
         customer.setId(1L);
@@ -110,10 +115,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(recentAppointment));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 1))
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
                 .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
-        when(treatmentRefillRepository.findBestRefillForWeeks(1L, 1))
-                .thenReturn(Optional.of(twoWeekRefill));
 
         // When
         RefillEligibilityResponse result = refillCalculationService.calculateRefillEligibility(1L, 1L);
@@ -134,8 +137,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(oldAppointment));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 5))
-                .thenReturn(List.of()); // No applicable refills for 5 weeks
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
+                .thenReturn(List.of(twoWeekRefill, threeWeekRefill)); // No applicable refills for 5 weeks
 
         // When
         RefillEligibilityResponse result = refillCalculationService.calculateRefillEligibility(1L, 1L);
@@ -188,10 +191,8 @@ class RefillCalculationServiceTest {
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(recentAppointment));
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 1))
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
                 .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
-        when(treatmentRefillRepository.findBestRefillForWeeks(1L, 1))
-                .thenReturn(Optional.of(twoWeekRefill));
 
         // When
         RefillEligibilityResponse result = refillCalculationService
@@ -203,6 +204,30 @@ class RefillCalculationServiceTest {
         assertEquals(2, result.getAvailableRefills().size());
     }
 
+    @Test
+    @DisplayName("Should calculate refill eligibility for several treatments with one history and refill lookup")
+    void shouldCalculateRefillEligibilityBatch() {
+        // Given
+        when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
+                .thenReturn(List.of(recentAppointment));
+        when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
+        when(treatmentService.findById(2L)).thenReturn(einzeltechnikTreatment);
+        when(treatmentRefillRepository.findActiveByTreatmentIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
+
+        // When
+        Map<Long, RefillEligibilityResponse> result = refillCalculationService
+                .calculateRefillEligibilityBatch(1L, List.of(1L, 2L));
+
+        // Then
+        assertEquals(List.of(1L, 2L), List.copyOf(result.keySet()));
+        assertTrue(result.get(1L).isEligible());
+        assertEquals(2, result.get(1L).getAvailableRefills().size());
+        assertFalse(result.get(2L).isEligible());
+        verify(appointmentRepository, times(1)).findByCustomerIdAndStatusIn(eq(1L), any(Set.class));
+        verify(treatmentRefillRepository, never()).findByTreatmentIdOrderByWeekThreshold(anyLong());
+    }
+
     @Test
     @DisplayName("Should check if customer is eligible for refill within max weeks")
     void shouldCheckIfCustomerIsEligibleForRefillWithinMaxWeeks() {
@@ -210,10 +235,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(recentAppointment));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 1))
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
                 .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
-        when(treatmentRefillRepository.findBestRefillForWeeks(1L, 1))
-                .thenReturn(Optional.of(twoWeekRefill));
 
         // When
         boolean eligible = refillCalculationService.isEligibleForRefill(1L, 1L, 4);
@@ -229,8 +252,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(oldAppointment)); // 5 weeks ago
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 5))
-                .thenReturn(List.of());
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
+                .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
 
         // When
         boolean eligible = refillCalculationService.isEligibleForRefill(1L, 1L, 3); // Max 3 weeks
@@ -246,10 +269,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(recentAppointment));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 1))
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
                 .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
-        when(treatmentRefillRepository.findBestRefillForWeeks(1L, 1))
-                .thenReturn(Optional.of(twoWeekRefill));
 
         // When
         Optional<RefillOptionDto> bestOption = refillCalculationService.getBestRefillOption(1L, 1L);
@@ -268,8 +289,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(oldAppointment));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 5))
-                .thenReturn(List.of());
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
+                .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
 
         // When
         Optional<RefillOptionDto> bestOption = refillCalculationService.getBestRefillOption(1L, 1L);
@@ -321,10 +342,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(appointmentWithCompletedDate));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 1))
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
                 .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
-        when(treatmentRefillRepository.findBestRefillForWeeks(1L, 1))
-                .thenReturn(Optional.of(twoWeekRefill));
 
         // When
         RefillEligibilityResponse result = refillCalculationService.calculateRefillEligibility(1L, 1L);
@@ -349,10 +368,8 @@ class RefillCalculationServiceTest {
         when(treatmentService.findById(1L)).thenReturn(hybridTreatment);
         when(appointmentRepository.findByCustomerIdAndStatusIn(eq(1L), any(Set.class)))
                 .thenReturn(List.of(appointmentWithoutCompletedDate));
-        when(treatmentRefillRepository.findApplicableRefillsForWeeks(1L, 1))
+        when(treatmentRefillRepository.findByTreatmentIdOrderByWeekThreshold(1L))
                 .thenReturn(List.of(twoWeekRefill, threeWeekRefill));
-        when(treatmentRefillRepository.findBestRefillForWeeks(1L, 1))
-                .thenReturn(Optional.of(twoWeekRefill));
 
         // When
         RefillEligibilityResponse result = refillCalculationService.calculateRefillEligibility(1L, 1L);
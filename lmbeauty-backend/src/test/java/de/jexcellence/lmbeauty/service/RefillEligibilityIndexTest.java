@@ -0,0 +1,37 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.database.repository.AppointmentRepository;
+import de.jexcellence.lmbeauty.database.repository.SecondaryIndexRegistry;
+import de.jexcellence.lmbeauty.database.repository.TreatmentRefillRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RefillEligibilityIndex Tests")
+class RefillEligibilityIndexTest {
+
+    @Test
+    @DisplayName("Should keep the number of cached customer histories bounded")
+    void shouldBoundCachedCustomers() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findByCustomerIdAndStatusIn(anyLong(), any())).thenReturn(List.of());
+        var index = new RefillEligibilityIndex(
+            appointmentRepository, mock(TreatmentRefillRepository.class), new SecondaryIndexRegistry());
+
+        for (long customerId = 1; customerId <= 25_000; customerId++) {
+            index.lastCompletedByTreatment(customerId);
+        }
+        assertTrue(index.cachedCustomerCount() <= 10_000);
+
+        // Recently loaded histories survive the scheduled eviction and are served from memory
+        index.lastCompletedByTreatment(25_000L);
+        index.evictExpiredCustomers();
+        index.lastCompletedByTreatment(25_000L);
+        verify(appointmentRepository, times(1)).findByCustomerIdAndStatusIn(eq(25_000L), any());
+    }
+}
@@ -0,0 +1,43 @@
+package de.jexcellence.lmbeauty.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SerializedResponseCache Tests")
+class SerializedResponseCacheTest {
+
+    private final SerializedResponseCache cache = new SerializedResponseCache();
+
+    @Test
+    @DisplayName("Should serialize again only after the version changed")
+    void shouldReuseBodyForSameVersion() {
+        AtomicInteger serializations = new AtomicInteger();
+
+        var first = cache.get("services", "v1", () -> List.of(serializations.incrementAndGet()));
+        var second = cache.get("services", "v1", () -> List.of(serializations.incrementAndGet()));
+        var third = cache.get("services", "v2", () -> List.of(serializations.incrementAndGet()));
+
+        assertSame(first, second);
+        assertEquals("[1]", new String(first.json(), StandardCharsets.UTF_8));
+        assertEquals("[2]", new String(third.json(), StandardCharsets.UTF_8));
+        assertEquals(2, serializations.get());
+    }
+
+    @Test
+    @DisplayName("Should store a gzip encoding of the JSON body")
+    void shouldCompressBody() throws Exception {
+        var body = cache.get("services", "v1", () -> List.of("Hybridtechnik", "Volumentechnik"));
+
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertArrayEquals(body.json(), in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.config.BookingProperties;
+import de.jexcellence.lmbeauty.database.entity.Treatment;
+import de.jexcellence.lmbeauty.database.repository.TreatmentRepository;
+import de.jexcellence.lmbeauty.dto.booking.TimeSlotResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TimeSlotService Tests")
+class TimeSlotServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 3, 4);
+
+    private TimeSlotService timeSlotService;
+    private Treatment treatment;
+
+    @BeforeEach
+    void setUp() {
+        // Open 09:10 - 12:00, 10:20 - 10:50 blocked
+        var openingHours = List.of(new DayCalendarResolver.OpenWindow(DATE.atTime(9, 10), DATE.atTime(12, 0)));
+        var calendar = new DayCalendarResolver.DayCalendar(DATE, false, openingHours, openingHours);
+        int blockStart = BlockingIntervalIndex.toEpochMinute(DATE.atTime(10, 20));
+        var blocking = BlockingIntervalIndex.DayIntervals.of(new int[][] {{blockStart, blockStart + 30}});
+
+        DayCalendarResolver dayCalendarResolver = mock(DayCalendarResolver.class);
+        BlockingIntervalIndex blockingIntervalIndex = mock(BlockingIntervalIndex.class);
+        TreatmentRepository treatmentRepository = mock(TreatmentRepository.class);
+        when(dayCalendarResolver.resolve(DATE)).thenReturn(calendar);
+        when(blockingIntervalIndex.forDay(DATE)).thenReturn(blocking);
+
+        treatment = new Treatment();
+        treatment.setId(1L);
+        treatment.setDurationMinutes(60);
+        when(treatmentRepository.findById(1L)).thenReturn(treatment);
+
+        timeSlotService = new TimeSlotService(treatmentRepository,
+            new AvailabilityBitmapCache(dayCalendarResolver, blockingIntervalIndex),
+            dayCalendarResolver, blockingIntervalIndex, new BookingProperties());
+    }
+
+    @Test
+    @DisplayName("Should step slots from an off-grid window start and check the exact treatment time")
+    void shouldStepFromWindowStart() {
+        List<TimeSlotResponse> slots = timeSlotService.getAvailableSlots(1L, DATE).slots();
+
+        assertEquals(List.of(
+            DATE.atTime(9, 10), DATE.atTime(9, 25), DATE.atTime(9, 40), DATE.atTime(9, 55),
+            DATE.atTime(10, 10), DATE.atTime(10, 25), DATE.atTime(10, 40), DATE.atTime(10, 55)
+        ), slots.stream().map(TimeSlotResponse::startTime).toList());
+        assertEquals(List.of(true, false, false, false, false, false, false, true),
+            slots.stream().map(TimeSlotResponse::available).toList());
+    }
+
+    @Test
+    @DisplayName("Should accept exactly the starts listed as available")
+    void shouldAcceptListedStarts() {
+        for (TimeSlotResponse slot : timeSlotService.getAvailableSlots(1L, DATE).slots()) {
+            assertEquals(slot.available(), timeSlotService.isSlotAvailable(treatment, slot.startTime()),
+                slot.startTime().toString());
+        }
+        assertFalse(timeSlotService.isSlotAvailable(treatment, DATE.atTime(9, 0)));
+        assertFalse(timeSlotService.isSlotAvailable(treatment, DATE.atTime(11, 0)));
+        assertFalse(timeSlotService.isSlotAvailable(treatment, DATE.atTime(9, 11)));
+    }
+}
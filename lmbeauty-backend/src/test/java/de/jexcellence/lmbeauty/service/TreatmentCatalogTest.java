@@ -0,0 +1,62 @@
+package de.jexcellence.lmbeauty.service;
+
+import de.jexcellence.lmbeauty.database.entity.Treatment;
+import de.jexcellence.lmbeauty.database.entity.TreatmentRefill;
+import de.jexcellence.lmbeauty.dto.booking.TreatmentResponse;
+import de.jexcellence.lmbeauty.type.ETreatmentCategory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TreatmentCatalog.Snapshot Tests")
+class TreatmentCatalogTest {
+
+    @Test
+    @DisplayName("Should index active treatments by slug and sort categories by sort order")
+    void shouldIndexActiveTreatments() {
+        Treatment volume = treatment(1L, "volumen", ETreatmentCategory.WIMPERN, 2, true);
+        Treatment hybrid = treatment(2L, "hybrid", ETreatmentCategory.WIMPERN, 1, true);
+        Treatment retired = treatment(3L, "hybrid-v1", ETreatmentCategory.WIMPERN, 0, false);
+
+        var snapshot = new TreatmentCatalog.Snapshot(7L, List.of(retired, volume, hybrid), List.of());
+
+        assertEquals(7L, snapshot.version());
+        assertEquals(List.of(1L, 2L, 3L), snapshot.allTreatments().stream().map(TreatmentResponse::id).toList());
+        assertEquals(List.of(2L, 1L),
+            snapshot.activeTreatmentsByCategory(ETreatmentCategory.WIMPERN).stream().map(TreatmentResponse::id).toList());
+        assertTrue(snapshot.activeTreatmentBySlug("hybrid-v1").isEmpty());
+        assertTrue(snapshot.treatmentById(3L).isPresent());
+        assertTrue(snapshot.activeTreatmentsByCategory(ETreatmentCategory.NAEGEL).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should build services with their active refill prices")
+    void shouldBuildServicesWithRefillPrices() {
+        Treatment hybrid = treatment(1L, "hybrid", ETreatmentCategory.WIMPERN, 1, true);
+        hybrid.setHasRefillOptions(true);
+        TreatmentRefill refill = new TreatmentRefill(hybrid, 2, new BigDecimal("35.00"), "2 wochen");
+
+        var snapshot = new TreatmentCatalog.Snapshot(1L, List.of(hybrid), List.of(refill));
+
+        var service = snapshot.serviceBySlug("hybrid").orElseThrow();
+        assertEquals(1, service.getDetails().getRefillPrices().size());
+        assertEquals("35.00€", service.getDetails().getRefillPrices().getFirst().getPrice());
+        assertSame(service, snapshot.servicesByCategory(ETreatmentCategory.WIMPERN).getFirst());
+    }
+
+    private static Treatment treatment(Long id, String slug, ETreatmentCategory category, int sortOrder, boolean active) {
+        Treatment treatment = new Treatment();
+        treatment.setId(id);
+        treatment.setName(slug);
+        treatment.setSlug(slug);
+        treatment.setCategory(category);
+        treatment.setSortOrder(sortOrder);
+        treatment.setActive(active);
+        treatment.setPrice(new BigDecimal("80.00"));
+        return treatment;
+    }
+}
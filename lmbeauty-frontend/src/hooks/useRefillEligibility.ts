@@ -237,38 +237,38 @@ export function useBatchRefillEligibility(
     setError(null);
 
     try {
-      const promises = treatmentIds.map(async (treatmentId) => {
-        const cacheKey = `${customerId}-${treatmentId}`;
-        const cached = eligibilityCache.get(cacheKey);
-        
+      const eligibilityMap: Record<string, RefillEligibility> = {};
+      const missing: string[] = [];
+
+      for (const treatmentId of treatmentIds) {
+        const cached = eligibilityCache.get(`${customerId}-${treatmentId}`);
         if (cached && Date.now() - cached.timestamp < CACHE_DURATION) {
-          return { treatmentId, eligibility: cached.data };
+          eligibilityMap[treatmentId] = cached.data;
+        } else {
+          missing.push(treatmentId);
         }
+      }
 
+      if (missing.length > 0) {
+        // One request for all uncached treatments instead of one per treatment
         const response = await fetch(
-          `/api/refills/calculate?customerId=${customerId}&treatmentId=${treatmentId}`
+          `/api/refills/calculate/batch?customerId=${customerId}&treatmentIds=${missing.join(',')}`
         );
 
         if (!response.ok) {
-          throw new Error(`Failed to fetch eligibility for treatment ${treatmentId}`);
+          throw new Error('Failed to fetch refill eligibility');
         }
 
-        const eligibility: RefillEligibility = await response.json();
-        
-        // Cache the result
-        eligibilityCache.set(cacheKey, {
-          data: eligibility,
-          timestamp: Date.now()
-        });
-
-        return { treatmentId, eligibility };
-      });
-
-      const results = await Promise.all(promises);
-      const eligibilityMap = results.reduce((acc, { treatmentId, eligibility }) => {
-        acc[treatmentId] = eligibility;
-        return acc;
-      }, {} as Record<string, RefillEligibility>);
+        const results: Record<string, RefillEligibility> = await response.json();
+        for (const [treatmentId, eligibility] of Object.entries(results)) {
+          eligibilityMap[treatmentId] = eligibility;
+          // Cache the result
+          eligibilityCache.set(`${customerId}-${treatmentId}`, {
+            data: eligibility,
+            timestamp: Date.now()
+          });
+        }
+      }
 
       setEligibilities(eligibilityMap);
     } catch (err) {